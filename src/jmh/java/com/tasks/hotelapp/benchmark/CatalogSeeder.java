@@ -0,0 +1,78 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.entity.Hotel;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+//Fills an empty catalog with deterministic synthetic hotels, so runs with the same parameters see the same data
+public final class CatalogSeeder {
+    public static final String[] NAME_WORDS = {"Grand", "Royal", "Plaza", "Garden", "Park", "Central", "Harbor",
+            "Palace", "Sunset", "River", "Lake", "Mountain", "City", "Ocean", "Crown", "Imperial"};
+    public static final int BRANDS = 50;
+    public static final int CITIES = 500;
+    public static final int COUNTRIES = 50;
+    public static final int AMENITIES = 40;
+    // Hotels are spread uniformly over this box, roughly Europe
+    public static final double MIN_LATITUDE = 35;
+    public static final double MAX_LATITUDE = 60;
+    public static final double MIN_LONGITUDE = -10;
+    public static final double MAX_LONGITUDE = 40;
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_HOTEL = "INSERT INTO hotels (id, version, name, description, brand, house_number, street, city, " +
+            "country, post_code, phone, email, check_in, check_out, name_lc, brand_lc, country_lc, address_line, latitude, " +
+            "longitude) VALUES (?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_AMENITY = "INSERT INTO hotel_amenities (hotel_id, amenity) VALUES (?, ?)";
+
+    private CatalogSeeder() {
+    }
+
+    public static String amenity(int index) {
+        return "Amenity " + index;
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int catalogSize, int amenitiesPerHotel) {
+        Random random = new Random(42);
+        List<Object[]> hotels = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> amenities = new ArrayList<>(BATCH_SIZE * amenitiesPerHotel);
+        for (int i = 1; i <= catalogSize; i++) {
+            String name = NAME_WORDS[random.nextInt(NAME_WORDS.length)] + " " + NAME_WORDS[random.nextInt(NAME_WORDS.length)]
+                    + " Hotel " + i;
+            String brand = "Brand " + random.nextInt(BRANDS);
+            String country = "Country " + random.nextInt(COUNTRIES);
+            int houseNumber = 1 + random.nextInt(200);
+            String street = "Street " + random.nextInt(1000);
+            String city = "City " + random.nextInt(CITIES);
+            String postCode = String.valueOf(10000 + random.nextInt(90000));
+            hotels.add(new Object[]{(long) i, name, "Description of " + name, brand, houseNumber, street, city, country,
+                    postCode, "+1 555 " + i, "hotel" + i + "@example.com", "14:00", "12:00",
+                    name.toLowerCase(Locale.ROOT), brand.toLowerCase(Locale.ROOT), country.toLowerCase(Locale.ROOT),
+                    Address.format(houseNumber, street, city, postCode, country),
+                    MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE),
+                    MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE)});
+
+            Set<Integer> hotelAmenities = new LinkedHashSet<>();
+            while (hotelAmenities.size() < Math.min(amenitiesPerHotel, AMENITIES)) {
+                hotelAmenities.add(random.nextInt(AMENITIES));
+            }
+            for (int amenity : hotelAmenities) {
+                amenities.add(new Object[]{(long) i, amenity(amenity)});
+            }
+
+            if (hotels.size() == BATCH_SIZE || i == catalogSize) {
+                jdbcTemplate.batchUpdate(INSERT_HOTEL, hotels);
+                jdbcTemplate.batchUpdate(INSERT_AMENITY, amenities);
+                hotels.clear();
+                amenities.clear();
+            }
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + Hotel.ID_SEQUENCE + " RESTART WITH " + (catalogSize + 1));
+    }
+}
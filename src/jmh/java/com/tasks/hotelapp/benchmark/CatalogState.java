@@ -0,0 +1,54 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.HotelAppApplication;
+import com.tasks.hotelapp.index.RebuildableIndex;
+import com.tasks.hotelapp.service.HotelService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Boots the application without a web server on an in-memory H2 seeded with catalogSize hotels
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"2", "8"})
+    public int amenitiesPerHotel;
+
+    // Pass -p readEngine=database,memory to compare the database with the in-memory columnar catalog
+    @Param({"database"})
+    public String readEngine;
+
+    public ConfigurableApplicationContext context;
+    public HotelService hotelService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HotelAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                // Arguments, because application.properties would override default properties
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.sql.init.mode=never",
+                        "--hotelapp.read-engine=" + readEngine,
+                        "--logging.level.root=WARN");
+        CatalogSeeder.seed(context.getBean(JdbcTemplate.class), catalogSize, amenitiesPerHotel);
+        context.getBeansOfType(RebuildableIndex.class).values().forEach(RebuildableIndex::rebuild);
+        hotelService = context.getBean(HotelService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.tasks.hotelapp.json.HotelDtoSerializer;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.Contacts;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.service.HotelDtoMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Hotel to HotelDto mapping and JSON serialization of DTO lists without the application; run with -prof gc to compare
+//allocation per list. formatAddress* is a copy of the former mapping that formatted every address, stored* calls the
+//mapping HotelService uses now, which reads the stored line
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Hotels {
+        @Param({"1000", "100000"})
+        public int size;
+
+        List<Hotel> hotels;
+        List<HotelDto> dtos;
+        ObjectMapper beanMapper;
+        ObjectMapper handWrittenMapper;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            hotels = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                Address address = new Address(i % 200, "Street " + i % 1000, "City " + i % 500, "Country " + i % 100,
+                        String.valueOf(10000 + i % 90000));
+                hotels.add(Hotel.builder().id((long) i).name("Grand Hotel " + i).description("Description of hotel " + i)
+                        .address(address).addressLine(address.format())
+                        .contacts(new Contacts("+1 555 " + i, "hotel" + i + "@example.com")).build());
+            }
+            dtos = hotels.stream().map(HotelDtoMapping::toHotelDto).toList();
+            beanMapper = new ObjectMapper();
+            handWrittenMapper = new ObjectMapper().registerModule(new SimpleModule().addSerializer(new HotelDtoSerializer()));
+        }
+    }
+
+    @Benchmark
+    public List<HotelDto> formatAddressMapping(Hotels state) {
+        List<HotelDto> result = new ArrayList<>(state.hotels.size());
+        for (Hotel hotel : state.hotels) {
+            Address address = hotel.getAddress();
+            result.add(new HotelDto(hotel.getId(), hotel.getName(), hotel.getDescription(),
+                    address.getHouseNumber() + " " + address.getStreet() + ", " + address.getCity() + ", "
+                            + address.getPostCode() + ", " + address.getCountry(),
+                    hotel.getContacts().getPhone()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<HotelDto> storedAddressMapping(Hotels state) {
+        List<HotelDto> result = new ArrayList<>(state.hotels.size());
+        for (Hotel hotel : state.hotels) {
+            result.add(HotelDtoMapping.toHotelDto(hotel));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void beanSerializer(Hotels state) throws IOException {
+        state.beanMapper.writeValue(OutputStream.nullOutputStream(), state.dtos);
+    }
+
+    @Benchmark
+    public void handWrittenSerializer(Hotels state) throws IOException {
+        state.handWrittenMapper.writeValue(OutputStream.nullOutputStream(), state.dtos);
+    }
+}
@@ -0,0 +1,77 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.ArrivalTime;
+import com.tasks.hotelapp.model.Contacts;
+import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelCursorDto;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Service paths behind each endpoint; SampleTime reports latency percentiles, -prof gc adds allocation rate
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotelServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class WriteState {
+        private long sequence;
+
+        HotelCreateDto nextHotel() {
+            long id = sequence++;
+            return new HotelCreateDto("Benchmark Hotel " + Thread.currentThread().threadId() + "-" + id, "Created by benchmark",
+                    "Brand 0", new Address(1, "Street " + id, "City 0", "Country 0", "10000"),
+                    new Contacts("+1 555 0000", "benchmark@example.com"), new ArrivalTime("14:00", "12:00"));
+        }
+    }
+
+    @Benchmark
+    public List<HotelDto> getAllHotels(CatalogState state) {
+        return state.hotelService.getAllHotels();
+    }
+
+    @Benchmark
+    public HotelCursorDto scrollMiddlePage(CatalogState state) {
+        return state.hotelService.getHotelsAfter((long) state.catalogSize / 2, 20);
+    }
+
+    @Benchmark
+    public List<HotelDto> getFilteredHotels(CatalogState state) {
+        return state.hotelService.getFilteredHotels(new HotelSearchDto("grand", "brand 1", null, null,
+                List.of(CatalogSeeder.amenity(0)), AmenityMatch.ANY));
+    }
+
+    @Benchmark
+    public Map<String, Integer> getHistogram(CatalogState state) {
+        return state.hotelService.getHistogram("amenities");
+    }
+
+    // Runs convertToHotelDto for every hotel in the catalog
+    @Benchmark
+    public void exportHotels(CatalogState state, Blackhole blackhole) {
+        state.hotelService.exportHotels(blackhole::consume);
+    }
+
+    @Benchmark
+    public HotelDto createHotel(CatalogState state, WriteState writeState) {
+        return state.hotelService.createHotel(writeState.nextHotel());
+    }
+}
@@ -0,0 +1,52 @@
+package com.tasks.hotelapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+//HTTP load against a running server; compare virtualThreads=false/true for throughput and the p0.99 of SampleTime.
+//The thread count is above Tomcat's default 200 workers so platform threads saturate; change it with -t
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class LoadBenchmark {
+
+    // Served from the cache, no database access
+    @Benchmark
+    public int getHotelById(ServerState state) throws IOException, InterruptedException {
+        return get(state, "/hotels/" + (1 + (int) (Thread.currentThread().threadId() % state.catalogSize)));
+    }
+
+    // One query per request, bounded by the connection pool and the transaction limiter
+    @Benchmark
+    public int searchHotels(ServerState state) throws IOException, InterruptedException {
+        return get(state, "/search/scroll?brand=brand%201&limit=20");
+    }
+
+    @Benchmark
+    public int scrollHotels(ServerState state) throws IOException, InterruptedException {
+        return get(state, "/hotels/scroll?afterId=" + state.catalogSize / 2 + "&limit=50");
+    }
+
+    private static int get(ServerState state, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(state.uri(path)).GET().build();
+        HttpResponse<Void> response = state.client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + path);
+        }
+        return response.statusCode();
+    }
+}
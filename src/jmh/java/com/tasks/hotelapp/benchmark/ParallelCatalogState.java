@@ -0,0 +1,51 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.HotelAppApplication;
+import com.tasks.hotelapp.index.RebuildableIndex;
+import com.tasks.hotelapp.service.HotelService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Boots the application with the in-memory read engine, reading the catalog with a pool of the given number of threads
+@State(Scope.Benchmark)
+public class ParallelCatalogState {
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    // 1 reads on the calling thread
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    public ConfigurableApplicationContext context;
+    public HotelService hotelService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HotelAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.datasource.url=jdbc:h2:mem:parallel;DB_CLOSE_DELAY=-1",
+                        "--spring.sql.init.mode=never",
+                        "--hotelapp.read-engine=memory",
+                        "--hotelapp.parallel.threads=" + threads,
+                        "--logging.level.root=WARN");
+        CatalogSeeder.seed(context.getBean(JdbcTemplate.class), catalogSize, 4);
+        context.getBeansOfType(RebuildableIndex.class).values().forEach(RebuildableIndex::rebuild);
+        hotelService = context.getBean(HotelService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
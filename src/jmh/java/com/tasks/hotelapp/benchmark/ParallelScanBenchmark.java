@@ -0,0 +1,47 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.dto.FacetedSearchDto;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Latency of one request over the in-memory catalog as the read pool grows; compare threads=1 with the others.
+//Only meaningful on a machine with at least as many cores as threads
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScanBenchmark {
+
+    // Every hotel converted to a DTO
+    @Benchmark
+    public List<HotelDto> getAllHotels(ParallelCatalogState state) {
+        return state.hotelService.getAllHotels();
+    }
+
+    // Every hotel checked, few converted
+    @Benchmark
+    public List<HotelDto> getFilteredHotels(ParallelCatalogState state) {
+        return state.hotelService.getFilteredHotels(new HotelSearchDto("grand", null, null, null,
+                List.of(CatalogSeeder.amenity(0)), AmenityMatch.ANY));
+    }
+
+    // Facet counts over about a fifth of the catalog
+    @Benchmark
+    public FacetedSearchDto getFacetedHotels(ParallelCatalogState state) {
+        return state.hotelService.getFacetedHotels(new HotelSearchDto(null, "brand 1", null, null, null,
+                AmenityMatch.ANY), PageRequest.of(0, 20));
+    }
+}
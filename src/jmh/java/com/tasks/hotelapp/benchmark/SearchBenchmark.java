@@ -0,0 +1,101 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.dto.FacetedSearchDto;
+import com.tasks.hotelapp.model.dto.HotelCursorDto;
+import com.tasks.hotelapp.model.dto.HotelDistanceDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.dto.HotelTextMatchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Search latency per predicate type; compare runs across catalogSize to see how each one scales
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final double CENTER_LATITUDE = (CatalogSeeder.MIN_LATITUDE + CatalogSeeder.MAX_LATITUDE) / 2;
+    private static final double CENTER_LONGITUDE = (CatalogSeeder.MIN_LONGITUDE + CatalogSeeder.MAX_LONGITUDE) / 2;
+
+    // Rare substring, answered by the trigram index
+    @Benchmark
+    public HotelCursorDto nameSubstringSelective(CatalogState state) {
+        return search(state, new HotelSearchDto("hotel 4242", null, null, null, null, AmenityMatch.ANY));
+    }
+
+    // Common substring, too many trigram matches, falls back to LIKE on name_lc
+    @Benchmark
+    public HotelCursorDto nameSubstringCommon(CatalogState state) {
+        return search(state, new HotelSearchDto("grand", null, null, null, null, AmenityMatch.ANY));
+    }
+
+    // Too short for trigrams, always LIKE on name_lc
+    @Benchmark
+    public HotelCursorDto nameShort(CatalogState state) {
+        return search(state, new HotelSearchDto("gr", null, null, null, null, AmenityMatch.ANY));
+    }
+
+    @Benchmark
+    public HotelCursorDto brandPrefix(CatalogState state) {
+        return search(state, new HotelSearchDto(null, "brand 4", null, null, null, AmenityMatch.ANY));
+    }
+
+    @Benchmark
+    public HotelCursorDto amenitiesAll(CatalogState state) {
+        return search(state, new HotelSearchDto(null, null, null, null,
+                List.of(CatalogSeeder.amenity(1), CatalogSeeder.amenity(2)), AmenityMatch.ALL));
+    }
+
+    @Benchmark
+    public HotelCursorDto amenitiesAny(CatalogState state) {
+        return search(state, new HotelSearchDto(null, null, null, null,
+                List.of(CatalogSeeder.amenity(1), CatalogSeeder.amenity(2)), AmenityMatch.ANY));
+    }
+
+    // Page plus facet counts over every hotel of one country, about 2% of the catalog
+    @Benchmark
+    public FacetedSearchDto facetedByCountry(CatalogState state) {
+        return state.hotelService.getFacetedHotels(new HotelSearchDto(null, null, null, "country 7", null, AmenityMatch.ANY),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+    }
+
+    // Around the middle of the seeded area, answered by the geo grid
+    @Benchmark
+    public List<HotelDistanceDto> nearbyWithinRadius(CatalogState state) {
+        return state.hotelService.getNearbyHotels(CENTER_LATITUDE, CENTER_LONGITUDE, 25.0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<HotelDistanceDto> nearbyNearest(CatalogState state) {
+        return state.hotelService.getNearbyHotels(CENTER_LATITUDE, CENTER_LONGITUDE, null, PAGE_SIZE);
+    }
+
+    // Two common words, every hotel matching both is scored and only the returned page is highlighted
+    @Benchmark
+    public List<HotelTextMatchDto> fullTextWords(CatalogState state) {
+        return state.hotelService.searchHotelsByText("grand palace", PAGE_SIZE);
+    }
+
+    // Misspelled and unfinished words, expanded to fuzzy and prefix terms
+    @Benchmark
+    public List<HotelTextMatchDto> fullTextFuzzyPrefix(CatalogState state) {
+        return state.hotelService.searchHotelsByText("imperal harb", PAGE_SIZE);
+    }
+
+    private static HotelCursorDto search(CatalogState state, HotelSearchDto search) {
+        return state.hotelService.getFilteredHotelsAfter(search, null, PAGE_SIZE);
+    }
+}
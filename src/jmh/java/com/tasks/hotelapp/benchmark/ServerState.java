@@ -0,0 +1,67 @@
+package com.tasks.hotelapp.benchmark;
+
+import com.tasks.hotelapp.HotelAppApplication;
+import com.tasks.hotelapp.index.RebuildableIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+//Starts the full web application on a random port, with requests served on platform or virtual threads
+@State(Scope.Benchmark)
+public class ServerState {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    @Param({"10"})
+    public int poolSize;
+
+    public ConfigurableApplicationContext context;
+    public HttpClient client;
+    public String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HotelAppApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                // Arguments, because application.properties would override default properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "--spring.sql.init.mode=never",
+                        "--logging.level.root=WARN");
+        CatalogSeeder.seed(context.getBean(JdbcTemplate.class), catalogSize, 4);
+        context.getBeansOfType(RebuildableIndex.class).values().forEach(RebuildableIndex::rebuild);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/property-view";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
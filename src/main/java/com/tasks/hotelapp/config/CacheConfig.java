@@ -0,0 +1,27 @@
+package com.tasks.hotelapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tasks.hotelapp.model.dto.CachedJsonDto;
+import com.tasks.hotelapp.service.JsonResponseCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class CacheConfig {
+
+    // Weighted by bytes instead of the entry count used by spring.cache.caffeine.spec;
+    // Caffeine's frequency-based admission keeps the most requested searches
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> responseCacheCustomizer(
+            @Value("${hotelapp.response-cache.max-size}") DataSize maxSize) {
+        return cacheManager -> cacheManager.registerCustomCache(JsonResponseCache.RESPONSE_CACHE, Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Object key, Object value) -> ((CachedJsonDto) value).weight())
+                .recordStats()
+                .build());
+    }
+}
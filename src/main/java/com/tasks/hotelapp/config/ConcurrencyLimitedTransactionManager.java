@@ -0,0 +1,36 @@
+package com.tasks.hotelapp.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+//Every repository call runs inside a transaction that holds its connection from begin to completion,
+//so a permit is taken for exactly that span and bursts queue here instead of in the connection pool
+public class ConcurrencyLimitedTransactionManager extends JpaTransactionManager {
+    private final transient ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedTransactionManager(EntityManagerFactory entityManagerFactory, ConcurrencyLimiter limiter) {
+        super(entityManagerFactory);
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        limiter.acquire();
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            limiter.release();
+        }
+    }
+}
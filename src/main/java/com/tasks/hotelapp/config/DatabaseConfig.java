@@ -0,0 +1,54 @@
+package com.tasks.hotelapp.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class DatabaseConfig {
+    public static final String EXPORT_TRANSACTION_MANAGER = "exportTransactionManager";
+
+    @Bean
+    public ConcurrencyLimiter databaseConcurrencyLimiter(
+            @Value("${hotelapp.db.max-concurrent-transactions}") int maxConcurrentTransactions,
+            @Value("${hotelapp.db.acquire-timeout}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter(maxConcurrentTransactions, acquireTimeout);
+    }
+
+    // Exports hold their transaction for the whole download, so they get their own smaller budget
+    @Bean
+    public ConcurrencyLimiter exportConcurrencyLimiter(
+            @Value("${hotelapp.db.max-concurrent-exports}") int maxConcurrentExports,
+            @Value("${hotelapp.db.acquire-timeout}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter(maxConcurrentExports, acquireTimeout);
+    }
+
+    // Replaces the JpaTransactionManager Spring Boot would otherwise create
+    @Bean
+    @Primary
+    public ConcurrencyLimitedTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                                   ConcurrencyLimiter databaseConcurrencyLimiter,
+                                                                   ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ConcurrencyLimitedTransactionManager transactionManager =
+                new ConcurrencyLimitedTransactionManager(entityManagerFactory, databaseConcurrencyLimiter);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    // Repository calls inside an export join its transaction, so they take no second permit
+    @Bean(EXPORT_TRANSACTION_MANAGER)
+    public ConcurrencyLimitedTransactionManager exportTransactionManager(EntityManagerFactory entityManagerFactory,
+                                                                         ConcurrencyLimiter exportConcurrencyLimiter,
+                                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ConcurrencyLimitedTransactionManager transactionManager =
+                new ConcurrencyLimitedTransactionManager(entityManagerFactory, exportConcurrencyLimiter);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tasks.hotelapp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on services, controllers are already timed as http.server.requests
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder databaseLimiterMetrics(ConcurrencyLimiter databaseConcurrencyLimiter,
+                                              ConcurrencyLimiter exportConcurrencyLimiter) {
+        return registry -> {
+            Gauge.builder("hotelapp.db.limiter.available", databaseConcurrencyLimiter, ConcurrencyLimiter::getAvailable)
+                    .description("Transactions that can start without waiting")
+                    .register(registry);
+            Gauge.builder("hotelapp.db.limiter.waiting", databaseConcurrencyLimiter, ConcurrencyLimiter::getWaiting)
+                    .description("Callers waiting for a transaction permit")
+                    .register(registry);
+            Gauge.builder("hotelapp.db.export-limiter.available", exportConcurrencyLimiter, ConcurrencyLimiter::getAvailable)
+                    .description("Exports that can start without waiting")
+                    .register(registry);
+            Gauge.builder("hotelapp.db.export-limiter.waiting", exportConcurrencyLimiter, ConcurrencyLimiter::getWaiting)
+                    .description("Exports waiting for a permit")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.tasks.hotelapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Only the outbox worker is scheduled, so nothing polls the database unless the outbox is enabled
+@Configuration
+@ConditionalOnProperty(name = "hotelapp.outbox.enabled", havingValue = "true")
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,51 @@
+package com.tasks.hotelapp.config;
+
+import com.tasks.hotelapp.slowquery.SlowQueryAspect;
+import com.tasks.hotelapp.slowquery.SlowQueryLog;
+import com.tasks.hotelapp.slowquery.StatementCapture;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+//Opt-in, the data source is only proxied when hotelapp.slow-query.enabled is true
+@Configuration
+@ConditionalOnProperty(name = "hotelapp.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public StatementCapture statementCapture() {
+        return new StatementCapture();
+    }
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<StatementCapture> statementCapture) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(statementCapture.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SlowQueryAspect slowQueryAspect(StatementCapture statementCapture, SlowQueryLog slowQueryLog,
+                                           JdbcTemplate jdbcTemplate,
+                                           @Value("${hotelapp.slow-query.threshold}") Duration threshold) {
+        return new SlowQueryAspect(statementCapture, slowQueryLog, jdbcTemplate, threshold);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tasks.hotelapp.config;
+
+import com.tasks.hotelapp.model.AmenityMatch;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, AmenityMatch.class, value -> AmenityMatch.valueOf(value.trim().toUpperCase()));
+    }
+}
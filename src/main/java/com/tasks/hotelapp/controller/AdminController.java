@@ -0,0 +1,39 @@
+package com.tasks.hotelapp.controller;
+
+import com.tasks.hotelapp.model.HistogramParam;
+import com.tasks.hotelapp.model.dto.SlowQueryDto;
+import com.tasks.hotelapp.service.HotelService;
+import com.tasks.hotelapp.slowquery.SlowQueryLog;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/property-view/admin")
+public class AdminController {
+
+    private SlowQueryLog slowQueryLog;
+    private HotelService hotelService;
+    @GetMapping("/slow-queries")
+    public List<SlowQueryDto> getSlowQueries(){
+        return slowQueryLog.getEntries();
+    }
+    @DeleteMapping("/slow-queries")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clearSlowQueries(){
+        slowQueryLog.clear();
+    }
+    @GetMapping("/histogram/consistency")
+    public Map<HistogramParam, Boolean> checkHistogramConsistency(){
+        return hotelService.checkHistogramConsistency();
+    }
+    @PostMapping("/histogram/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildHistogram(){
+        hotelService.rebuildHistogram();
+    }
+}
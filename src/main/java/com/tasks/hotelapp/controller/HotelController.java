@@ -1,50 +1,273 @@
 package com.tasks.hotelapp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasks.hotelapp.exception.ChangeOffsetExpiredException;
+import com.tasks.hotelapp.model.dto.AmenityBatchDto;
+import com.tasks.hotelapp.model.dto.AmenityBatchResultDto;
+import com.tasks.hotelapp.model.dto.CachedJsonDto;
+import com.tasks.hotelapp.model.dto.FacetedSearchDto;
 import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelChangesDto;
+import com.tasks.hotelapp.model.dto.HotelCursorDto;
+import com.tasks.hotelapp.model.dto.HotelDetailsDto;
+import com.tasks.hotelapp.model.dto.HotelDistanceDto;
 import com.tasks.hotelapp.model.dto.HotelDto;
-import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.dto.HotelImportDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.dto.HotelSliceDto;
+import com.tasks.hotelapp.model.dto.HotelTextMatchDto;
+import com.tasks.hotelapp.model.dto.OutboxEntryDto;
+import com.tasks.hotelapp.service.CatalogVersion;
+import com.tasks.hotelapp.service.ChangeLog;
+import com.tasks.hotelapp.service.HotelImportService;
 import com.tasks.hotelapp.service.HotelService;
+import com.tasks.hotelapp.service.JsonResponseCache;
+import com.tasks.hotelapp.service.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @AllArgsConstructor
 @RequestMapping("/property-view")
 public class HotelController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String SEARCH_RESULTS = "hotelapp.search.results";
+    private static final List<String> ALL_HOTELS = List.of("hotels");
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
     private HotelService hotelService;
+    private HotelImportService hotelImportService;
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+    private CatalogVersion catalogVersion;
+    private JsonResponseCache jsonResponseCache;
+    private OutboxService outboxService;
+    private ChangeLog changeLog;
     @GetMapping("/hotels")
-    public List<HotelDto> getHotels(){
-        return hotelService.getAllHotels();
+    public ResponseEntity<byte[]> getHotels(WebRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (request.checkNotModified(catalogEtag(gzip), catalogVersion.getLastModified())) {
+            return null;
+        }
+        return toResponse(jsonResponseCache.get(ALL_HOTELS, hotelService::getAllHotels), gzip);
+    }
+    @GetMapping("/hotels/page")
+    public HotelSliceDto getHotelsPage(@PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable){
+        return hotelService.getHotelsPage(pageable);
+    }
+    @GetMapping("/hotels/scroll")
+    public HotelCursorDto scrollHotels(@RequestParam(required = false) Long afterId,
+                                       @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        return hotelService.getHotelsAfter(afterId, limit);
     }
+    @GetMapping(value = "/hotels/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportHotels(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE) : outputStream;
+            try (JsonGenerator generator = objectMapper.createGenerator(target)) {
+                generator.setRootValueSeparator(null);
+                hotelService.exportHotels(hotel -> writeLine(generator, hotel));
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    // The hotel comes from the cache when warm, a 304 then skips the database and serialization. The entry is
+    // evicted after each committed write to this hotel, so the ETag only changes with the hotel's own version
     @GetMapping("/hotels/{id}")
-    public Hotel getHotelById(@PathVariable Long id){
-        return hotelService.getHotelById(id);
+    public HotelDetailsDto getHotelById(@PathVariable Long id, WebRequest request){
+        HotelDetailsDto hotel = hotelService.getHotelById(id);
+        if (request.checkNotModified(id + "-" + hotel.version())) {
+            return null;
+        }
+        return hotel;
     }
     @GetMapping("/search")
-    public List<HotelDto> searchHotel(@RequestParam(required = false) String name,
-                                      @RequestParam (required = false) String brand,
-                                      @RequestParam(required = false) String city,
-                                      @RequestParam (required = false) String country,
-                                      @RequestParam(required = false) List<String> amenities){
-        return hotelService.getFilteredHotels(name,brand,country,city,amenities);
+    public ResponseEntity<byte[]> searchHotel(HotelSearchDto search,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        CachedJsonDto hotels = jsonResponseCache.get(JsonResponseCache.searchKey(search),
+                () -> hotelService.getFilteredHotels(search));
+        meterRegistry.summary(SEARCH_RESULTS).record(hotels.count());
+        return toResponse(hotels, acceptsGzip(acceptEncoding));
+    }
+    // Without radiusKm the limit nearest hotels are returned wherever they are
+    @GetMapping("/search/nearby")
+    public List<HotelDistanceDto> searchNearbyHotels(@RequestParam double lat,
+                                                     @RequestParam double lon,
+                                                     @RequestParam(required = false) Double radiusKm,
+                                                     @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        return hotelService.getNearbyHotels(lat, lon, radiusKm, limit);
+    }
+    // Ranked by relevance, every word has to match exactly, as a prefix or with a small typo
+    @GetMapping("/search/text")
+    public List<HotelTextMatchDto> searchHotelsByText(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        return hotelService.searchHotelsByText(q, limit);
+    }
+    @PostMapping("/search/text/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rebuildFullTextIndex(){
+        hotelService.rebuildFullTextIndex();
+    }
+    @GetMapping("/search/page")
+    public HotelSliceDto searchHotelPage(HotelSearchDto search,
+                                         @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable){
+        return hotelService.getFilteredHotelsPage(search, pageable);
+    }
+    @GetMapping("/search/faceted")
+    public FacetedSearchDto searchHotelFaceted(HotelSearchDto search,
+                                               @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable){
+        return hotelService.getFacetedHotels(search, pageable);
+    }
+    @GetMapping("/search/scroll")
+    public HotelCursorDto scrollSearchHotel(HotelSearchDto search,
+                                            @RequestParam(required = false) Long afterId,
+                                            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        return hotelService.getFilteredHotelsAfter(search, afterId, limit);
     }
     @PostMapping("/hotels")
-    public HotelDto createHotel(@RequestBody HotelCreateDto hotel){
-        return hotelService.createHotel(hotel);
+    public ResponseEntity<?> createHotel(@RequestBody HotelCreateDto hotel){
+        if (outboxService.isEnabled()) {
+            return accepted(outboxService.enqueueHotel(hotel));
+        }
+        return ResponseEntity.ok(hotelService.createHotel(hotel));
+    }
+    @PostMapping(value = "/hotels/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public HotelImportDto importHotels(InputStream body){
+        return hotelImportService.importHotels(body);
     }
     @PostMapping("/hotels/{id}/amenities")
-    public void createAmenities(
+    public ResponseEntity<OutboxEntryDto> createAmenities(
             @PathVariable Long id,
             @RequestBody List<String> amenities){
+        if (outboxService.isEnabled()) {
+            return accepted(outboxService.enqueueAmenities(id, amenities));
+        }
         hotelService.addAmenities(id,amenities);
+        return ResponseEntity.ok().build();
+    }
+    @PostMapping("/hotels/amenities")
+    public AmenityBatchResultDto addAmenitiesToHotels(@RequestBody AmenityBatchDto batch){
+        return hotelService.addAmenitiesToHotels(batch);
+    }
+    @GetMapping("/changes")
+    public HotelChangesDto getChanges(@RequestParam(required = false) Long after,
+                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        return changeLog.read(after, limit);
+    }
+    // A reconnecting EventSource sends the id of the last event it received, the stream resumes after it.
+    // An expired offset is answered with a bare status, the error body cannot be written as an event stream
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long after,
+                                    @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId){
+        try {
+            return changeLog.subscribe(lastEventId != null ? lastEventId : after);
+        } catch (ChangeOffsetExpiredException exception) {
+            throw new ResponseStatusException(HttpStatus.GONE, exception.getMessage());
+        }
+    }
+    @GetMapping("/outbox/{id}")
+    public OutboxEntryDto getOutboxEntry(@PathVariable Long id){
+        return outboxService.getEntry(id);
     }
     @GetMapping("/histogram/{param}")
-    public Map<String, Integer> getHotelHistogram(@PathVariable() String param){
+    public Map<String, Integer> getHotelHistogram(@PathVariable() String param, WebRequest request){
+        if (isCatalogNotModified(request)) {
+            return null;
+        }
         return hotelService.getHistogram(param);
     }
+    private static ResponseEntity<OutboxEntryDto> accepted(OutboxEntryDto entry) {
+        URI status = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/property-view/outbox/{id}").buildAndExpand(entry.getId()).toUri();
+        return ResponseEntity.accepted().location(status).body(entry);
+    }
+    private static ResponseEntity<byte[]> toResponse(CachedJsonDto body, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+    // Entries look like "gzip;q=0.5", q=0 refuses a coding and "*" stands for every coding not listed
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = quality(parts);
+            } else if (coding.equals("*")) {
+                any = quality(parts);
+            }
+        }
+        double quality = gzip != null ? gzip : any != null ? any : 0;
+        return quality > 0;
+    }
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+    private boolean isCatalogNotModified(WebRequest request) {
+        return request.checkNotModified(catalogEtag(false), catalogVersion.getLastModified());
+    }
+    // The gzip body is a different representation, so it gets its own ETag
+    private String catalogEtag(boolean gzip) {
+        return catalogVersion.getVersion() + (gzip ? "-gzip" : "");
+    }
+    private static void writeLine(JsonGenerator generator, HotelDto hotel) {
+        try {
+            generator.writeObject(hotel);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
 }
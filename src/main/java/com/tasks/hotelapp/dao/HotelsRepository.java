@@ -1,11 +1,114 @@
 package com.tasks.hotelapp.dao;
 
 import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.dto.HotelDto;
 import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HistogramEntry;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import com.tasks.hotelapp.model.projection.HotelLocation;
+import com.tasks.hotelapp.model.projection.HotelName;
+import com.tasks.hotelapp.model.projection.HotelNameAddress;
+import com.tasks.hotelapp.model.projection.HotelRow;
+import com.tasks.hotelapp.model.projection.HotelText;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface HotelsRepository extends JpaRepository<Hotel,Long>, JpaSpecificationExecutor<Hotel> {
-    public boolean existsHotelByAddressAndName(Address address, String name);
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Declared queries are not transactional by default, this makes calls from outside a service transaction
+// go through the transaction manager and its concurrency limit as well
+@Transactional(readOnly = true)
+public interface HotelsRepository extends JpaRepository<Hotel,Long>, JpaSpecificationExecutor<Hotel>, HotelsRepositoryCustom {
+    // Coordinates are not part of a hotel's identity, so only the postal address is compared
+    default boolean existsHotelByAddressAndName(Address address, String name) {
+        return address != null && existsByNameAndPostalAddress(name, address.getHouseNumber(), address.getStreet(), address.getCity(),
+                address.getCountry(), address.getPostCode());
+    }
+
+    @Query("select count(h) > 0 from Hotel h where h.name = :name and h.address.houseNumber = :houseNumber " +
+            "and h.address.street = :street and h.address.city = :city and h.address.country = :country " +
+            "and h.address.postCode = :postCode")
+    boolean existsByNameAndPostalAddress(String name, int houseNumber, String street, String city, String country,
+                                         String postCode);
+
+    @Query("select h.name as name, h.address as address from Hotel h where h.name in :names")
+    List<HotelNameAddress> findNameAddressesByNameIn(Collection<String> names);
+
+    @EntityGraph(Hotel.WITH_AMENITIES)
+    Optional<Hotel> findWithAmenitiesById(Long id);
+
+    @Query("select new com.tasks.hotelapp.model.dto.HotelDto(h.id, h.name, h.description, h.addressLine, " +
+            "h.contacts.phone) from Hotel h order by h.id")
+    List<HotelDto> findAllHotelDtos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select h from Hotel h order by h.id")
+    Stream<Hotel> streamAllBy();
+
+    @Query("select h.brand as label, count(h) as total from Hotel h group by h.brand")
+    List<HistogramEntry> findBrandHistogram();
+
+    @Query("select h.address.city as label, count(h) as total from Hotel h group by h.address.city")
+    List<HistogramEntry> findCityHistogram();
+
+    @Query("select h.address.country as label, count(h) as total from Hotel h group by h.address.country")
+    List<HistogramEntry> findCountryHistogram();
+
+    @Query("select a as label, count(a) as total from Hotel h join h.amenities a group by a")
+    List<HistogramEntry> findAmenityHistogram();
+
+    @Query("select h.id as hotelId, a as amenity from Hotel h join h.amenities a")
+    List<HotelAmenity> findHotelAmenities();
+
+    @Query("select h.id as hotelId, a as amenity from Hotel h join h.amenities a " +
+            "where h.id in :hotelIds and a in :amenities")
+    List<HotelAmenity> findHotelAmenitiesIn(Collection<Long> hotelIds, Collection<String> amenities);
+
+    // Set-based insert, hotels that already have the amenity are skipped by the database
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "insert into hotel_amenities (hotel_id, amenity) " +
+            "select h.id, :amenity from hotels h where h.id in :hotelIds and not exists " +
+            "(select 1 from hotel_amenities a where a.hotel_id = h.id and a.amenity = :amenity)")
+    int insertMissingAmenity(Collection<Long> hotelIds, String amenity);
+
+    @Modifying
+    @Transactional
+    @Query("update Hotel h set h.version = h.version + 1 where h.id in :hotelIds")
+    int incrementVersions(Collection<Long> hotelIds);
+
+    @Query("select h.id as id, h.name as name from Hotel h")
+    List<HotelName> findHotelNames();
+
+    @Query("select h.id as id, h.address.latitude as latitude, h.address.longitude as longitude from Hotel h " +
+            "where h.address.latitude is not null and h.address.longitude is not null")
+    List<HotelLocation> findHotelLocations();
+
+    @Query("select h.id as id, h.name as name, h.description as description, h.brand as brand, " +
+            "h.addressLine as addressLine, h.address.city as city, h.address.country as country, " +
+            "h.contacts.phone as phone " +
+            "from Hotel h where h.id > :afterId order by h.id")
+    List<HotelRow> findHotelRowsAfter(long afterId, Limit limit);
+
+    @Query("select h.id as hotelId, a as amenity from Hotel h join h.amenities a where h.id > :afterId and h.id <= :toId")
+    List<HotelAmenity> findHotelAmenitiesBetween(long afterId, long toId);
+
+    @Query("select h.id as id, h.name as name, h.description as description, h.brand as brand, h.address.city as city " +
+            "from Hotel h where h.id > :afterId order by h.id")
+    List<HotelText> findHotelTextsAfter(long afterId, Limit limit);
 
 }
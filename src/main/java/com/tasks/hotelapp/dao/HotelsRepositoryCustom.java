@@ -0,0 +1,23 @@
+package com.tasks.hotelapp.dao;
+
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelFacetRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Read-only like HotelsRepository, so callers without a service transaction still go through the concurrency limit
+@Transactional(readOnly = true)
+public interface HotelsRepositoryCustom {
+    // limit <= 0 returns every matching hotel
+    List<HotelDto> findHotelDtos(Specification<Hotel> spec, Sort sort, long offset, int limit);
+
+    List<Long> findHotelIds(Specification<Hotel> spec);
+
+    // Must be consumed and closed inside a transaction
+    Stream<HotelFacetRow> streamFacetRows(Specification<Hotel> spec);
+}
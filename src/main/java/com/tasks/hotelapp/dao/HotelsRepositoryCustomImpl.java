@@ -0,0 +1,91 @@
+package com.tasks.hotelapp.dao;
+
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelFacetRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.AllArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@AllArgsConstructor
+public class HotelsRepositoryCustomImpl implements HotelsRepositoryCustom {
+    private static final int FACET_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<HotelDto> findHotelDtos(Specification<Hotel> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<HotelDto> query = cb.createQuery(HotelDto.class);
+        Root<Hotel> root = query.from(Hotel.class);
+
+        query.select(cb.construct(HotelDto.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("description"),
+                root.get("addressLine"),
+                root.get("contacts").get("phone")));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<HotelDto> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult(Math.toIntExact(offset));
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<Long> findHotelIds(Specification<Hotel> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Hotel> root = query.from(Hotel.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Only the columns the facets count, so a pass over a large match stays narrow
+    @Override
+    public Stream<HotelFacetRow> streamFacetRows(Specification<Hotel> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<HotelFacetRow> query = cb.createQuery(HotelFacetRow.class);
+        Root<Hotel> root = query.from(Hotel.class);
+        Path<Object> address = root.get("address");
+        query.select(cb.construct(HotelFacetRow.class,
+                root.get("id"),
+                root.get("brand"),
+                address.get("city"),
+                address.get("country")));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FACET_FETCH_SIZE)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,30 @@
+package com.tasks.hotelapp.dao;
+
+import com.tasks.hotelapp.model.OutboxStatus;
+import com.tasks.hotelapp.model.entity.OutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+
+    List<OutboxEntry> findByStatusOrderById(OutboxStatus status, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEntry e set e.status = :status, e.hotelId = coalesce(:hotelId, e.hotelId), " +
+            "e.error = :error, e.processedAt = :processedAt where e.id in :ids")
+    int markProcessed(Collection<Long> ids, OutboxStatus status, Long hotelId, String error, Instant processedAt);
+
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEntry e where e.processedAt < :before")
+    int deleteProcessedBefore(Instant before);
+}
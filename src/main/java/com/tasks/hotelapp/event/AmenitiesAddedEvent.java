@@ -0,0 +1,13 @@
+package com.tasks.hotelapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@AllArgsConstructor
+public class AmenitiesAddedEvent {
+    private final Long hotelId;
+    private final Collection<String> amenities;
+}
@@ -0,0 +1,11 @@
+package com.tasks.hotelapp.event;
+
+import com.tasks.hotelapp.model.entity.Hotel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HotelCreatedEvent {
+    private final Hotel hotel;
+}
@@ -0,0 +1,51 @@
+package com.tasks.hotelapp.event;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+//Work that listeners defer to the end of the transaction. Listeners run in afterCommit, a synchronization registered
+//there still gets its afterCompletion call; lower orders run first
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    // Runs the action once after the current transaction commits, however often it is requested; at once without one
+    public static void runOnceAfterTransaction(Object key, int order, Runnable action) {
+        collectAfterTransaction(key, order, Boolean.TRUE, items -> action.run());
+    }
+
+    // Collects the items added under the key during the transaction and hands them to the action once it commits
+    public static <T> void collectAfterTransaction(Object key, int order, T item, Consumer<List<T>> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(List.of(item));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<T> pending = (List<T>) TransactionSynchronizationManager.getResource(key);
+        if (pending == null) {
+            List<T> items = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(key, items);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return order;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(key);
+                    if (status == STATUS_COMMITTED) {
+                        action.accept(items);
+                    }
+                }
+            });
+            pending = items;
+        }
+        pending.add(item);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tasks.hotelapp.exception;
+
+public class ChangeOffsetExpiredException extends RuntimeException{
+    public ChangeOffsetExpiredException(String message){
+        super(message);
+    }
+}
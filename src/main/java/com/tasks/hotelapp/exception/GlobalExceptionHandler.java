@@ -1,30 +1,63 @@
 package com.tasks.hotelapp.exception;
 
 import com.tasks.hotelapp.model.dto.ResponseError;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @RestControllerAdvice
+@AllArgsConstructor
 public class GlobalExceptionHandler {
+    private static final String EXCEPTIONS_COUNTER = "hotelapp.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(HotelAlreadyExistsException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ResponseError handleHotelAlreadyExistsException(HotelAlreadyExistsException exception){
+        count(exception);
         return new ResponseError(409,HttpStatus.CONFLICT,exception.getMessage());
     }
 
     @ExceptionHandler(HotelNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseError handleHotelNotFoundException(HotelNotFoundException exception){
+        count(exception);
+        return new ResponseError(404,HttpStatus.NOT_FOUND,exception.getMessage());
+    }
+
+    @ExceptionHandler(OutboxEntryNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseError handleOutboxEntryNotFoundException(OutboxEntryNotFoundException exception){
+        count(exception);
         return new ResponseError(404,HttpStatus.NOT_FOUND,exception.getMessage());
     }
 
+    @ExceptionHandler(ChangeOffsetExpiredException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    public ResponseError handleChangeOffsetExpiredException(ChangeOffsetExpiredException exception){
+        count(exception);
+        return new ResponseError(410,HttpStatus.GONE,exception.getMessage());
+    }
+
     @ExceptionHandler(NotValidDataException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseError handleHotelNotFoundException(NotValidDataException exception){
+        count(exception);
         return new ResponseError(400,HttpStatus.BAD_REQUEST,exception.getMessage());
     }
 
+    @ExceptionHandler(DatabaseBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseError handleDatabaseBusyException(DatabaseBusyException exception){
+        count(exception);
+        return new ResponseError(503,HttpStatus.SERVICE_UNAVAILABLE,exception.getMessage());
+    }
 
+    private void count(RuntimeException exception){
+        meterRegistry.counter(EXCEPTIONS_COUNTER, "exception", exception.getClass().getSimpleName()).increment();
+    }
 }
@@ -0,0 +1,7 @@
+package com.tasks.hotelapp.exception;
+
+public class OutboxEntryNotFoundException extends RuntimeException{
+    public OutboxEntryNotFoundException(String message){
+        super(message);
+    }
+}
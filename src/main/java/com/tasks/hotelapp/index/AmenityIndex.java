@@ -0,0 +1,133 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Inverted index amenity -> bitmap of hotel ids, answers ANY/ALL amenity queries by set union/intersection
+@Component
+@RequiredArgsConstructor
+public class AmenityIndex implements RebuildableIndex {
+    private final HotelsRepository hotelsRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, BitSet> postings = new HashMap<>();
+    private volatile boolean built;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        Hotel hotel = event.getHotel();
+        if (hotel.getAmenities() != null) {
+            add(hotel.getId(), hotel.getAmenities());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        add(event.getHotelId(), event.getAmenities());
+    }
+
+    @Override
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            Map<String, BitSet> rebuilt = new HashMap<>();
+            for (HotelAmenity hotelAmenity : hotelsRepository.findHotelAmenities()) {
+                rebuilt.computeIfAbsent(hotelAmenity.getAmenity(), amenity -> new BitSet())
+                        .set(toIndex(hotelAmenity.getHotelId()));
+            }
+            postings = rebuilt;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the matching hotel ids, or null while the index has not been built yet
+    public BitSet match(Collection<String> amenities, AmenityMatch match) {
+        if (!built) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return match == AmenityMatch.ALL ? intersect(amenities) : union(amenities);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of the given hotels that have each amenity, amenities none of them has are left out
+    public Map<String, Integer> count(BitSet hotelIds) {
+        if (!built) {
+            rebuild();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new HashMap<>();
+            postings.forEach((amenity, posting) -> {
+                BitSet matching = (BitSet) posting.clone();
+                matching.and(hotelIds);
+                if (!matching.isEmpty()) {
+                    counts.put(amenity, matching.cardinality());
+                }
+            });
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet intersect(Collection<String> amenities) {
+        return BitSets.intersect(new LinkedHashSet<>(amenities).stream()
+                .map(amenity -> postings.getOrDefault(amenity, new BitSet()))
+                .toList());
+    }
+
+    private BitSet union(Collection<String> amenities) {
+        BitSet result = new BitSet();
+        for (String amenity : amenities) {
+            BitSet posting = postings.get(amenity);
+            if (posting != null) {
+                result.or(posting);
+            }
+        }
+        return result;
+    }
+
+    private void add(Long hotelId, Collection<String> amenities) {
+        int index = toIndex(hotelId);
+        lock.writeLock().lock();
+        try {
+            for (String amenity : amenities) {
+                postings.computeIfAbsent(amenity, key -> new BitSet()).set(index);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int toIndex(Long hotelId) {
+        return Math.toIntExact(hotelId);
+    }
+}
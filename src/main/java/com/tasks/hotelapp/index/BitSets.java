@@ -0,0 +1,31 @@
+package com.tasks.hotelapp.index;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public final class BitSets {
+
+    private BitSets() {
+    }
+
+    public static List<Long> toIds(BitSet bitSet) {
+        return bitSet.stream().mapToObj(Long::valueOf).toList();
+    }
+
+    // Starts from the smallest set, so every intermediate result is as small as possible; the inputs are not modified
+    static BitSet intersect(Collection<BitSet> sets) {
+        List<BitSet> sorted = sets.stream()
+                .sorted(Comparator.comparingInt(BitSet::cardinality))
+                .toList();
+        if (sorted.isEmpty()) {
+            return new BitSet();
+        }
+        BitSet result = (BitSet) sorted.get(0).clone();
+        for (int i = 1; i < sorted.size() && !result.isEmpty(); i++) {
+            result.and(sorted.get(i));
+        }
+        return result;
+    }
+}
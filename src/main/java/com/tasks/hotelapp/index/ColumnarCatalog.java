@@ -0,0 +1,697 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.event.TransactionCallbacks;
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.HistogramParam;
+import com.tasks.hotelapp.model.ReadEngine;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import com.tasks.hotelapp.model.projection.HotelRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+//Read replica of the catalog kept in memory column by column, used instead of the database when
+//hotelapp.read-engine=memory. Rows are kept in id order in chunks of up to CHUNK_SIZE. Brand, city, country and
+//amenities are stored as codes into dictionaries that also hold the histogram counts. The writes of a transaction
+//copy the chunks and dictionaries they change into one new snapshot that is swapped in after the transaction
+//completes, so readers never lock and never see half a write.
+//Catalogs of at least hotelapp.parallel.min-rows hotels are read by a fork-join pool of hotelapp.parallel.threads
+@Component
+public class ColumnarCatalog implements RebuildableIndex {
+    static final int CHUNK_SIZE = 1024;
+    // Enough ranges per thread to even out ranges that match more rows than others
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int NONE = -1;
+
+    private final HotelsRepository hotelsRepository;
+    private final boolean enabled;
+    private final int parallelMinRows;
+    private final ForkJoinPool pool;
+
+    // Serializes writers, readers only read the volatile snapshot
+    private final Object writeLock = new Object();
+    // Bound to a transaction while its writes are collected
+    private final Object pendingChanges = new Object();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean built;
+
+    public ColumnarCatalog(HotelsRepository hotelsRepository,
+                           @Value("${hotelapp.read-engine}") ReadEngine readEngine,
+                           @Value("${hotelapp.parallel.min-rows}") int parallelMinRows,
+                           @Value("${hotelapp.parallel.threads}") int parallelThreads) {
+        this.hotelsRepository = hotelsRepository;
+        this.enabled = readEngine == ReadEngine.MEMORY;
+        this.parallelMinRows = parallelMinRows;
+        // 0 uses every core
+        this.pool = new ForkJoinPool(parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        applyAfterTransaction(batch -> batch.addHotel(event.getHotel()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        applyAfterTransaction(batch -> batch.addAmenities(event.getHotelId(), event.getAmenities()));
+    }
+
+    // Ordered first, so the snapshot is swapped before the catalog version is bumped and a response cached under the
+    // new version includes the writes
+    private void applyAfterTransaction(Consumer<Batch> change) {
+        TransactionCallbacks.collectAfterTransaction(pendingChanges, Ordered.HIGHEST_PRECEDENCE, change, this::apply);
+    }
+
+    private void apply(List<Consumer<Batch>> changes) {
+        synchronized (writeLock) {
+            if (built) {
+                Batch batch = new Batch(snapshot);
+                changes.forEach(change -> change.accept(batch));
+                snapshot = batch.toSnapshot();
+            }
+        }
+    }
+
+    // Loads the catalog one chunk per query pair, rows and then their amenities
+    @Override
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            Dictionary brands = new Dictionary();
+            Dictionary cities = new Dictionary();
+            Dictionary countries = new Dictionary();
+            Dictionary amenities = new Dictionary();
+            List<Chunk> chunks = new ArrayList<>();
+            List<HotelRow> batch;
+            long afterId = 0;
+            do {
+                batch = hotelsRepository.findHotelRowsAfter(afterId, Limit.of(CHUNK_SIZE));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                long toId = batch.get(batch.size() - 1).getId();
+                Map<Long, List<String>> amenitiesByHotel = new HashMap<>();
+                for (HotelAmenity amenity : hotelsRepository.findHotelAmenitiesBetween(afterId, toId)) {
+                    amenitiesByHotel.computeIfAbsent(amenity.getHotelId(), id -> new ArrayList<>()).add(amenity.getAmenity());
+                }
+                Chunk chunk = new Chunk(batch.size());
+                for (HotelRow row : batch) {
+                    chunk.set(chunk.size++, row.getId(), row.getName(), row.getDescription(), brands.count(row.getBrand()),
+                            row.getAddressLine(), cities.count(row.getCity()), countries.count(row.getCountry()),
+                            row.getPhone(),
+                            amenities.countAll(amenitiesByHotel.getOrDefault(row.getId(), List.of())));
+                }
+                chunks.add(chunk);
+                afterId = toId;
+            } while (batch.size() == CHUNK_SIZE);
+            snapshot = new Snapshot(chunks.toArray(Chunk[]::new), brands, cities, countries, amenities);
+            built = true;
+        }
+    }
+
+    public List<HotelDto> findAll() {
+        return scan(current(), Filter.ALL);
+    }
+
+    // Same matching as the database search: name is a substring, brand and country are prefixes, all ignoring case;
+    // city and amenities are compared exactly
+    public List<HotelDto> find(HotelSearchDto search) {
+        Snapshot current = current();
+        Filter filter = Filter.of(current, search);
+        return filter == null ? List.of() : scan(current, filter);
+    }
+
+    public Map<String, Integer> histogram(HistogramParam param) {
+        Snapshot current = current();
+        return switch (param) {
+            case BRAND -> current.brands.histogram(current.brands.counts);
+            case CITY -> current.cities.histogram(current.cities.counts);
+            case COUNTRY -> current.countries.histogram(current.countries.counts);
+            case AMENITIES -> current.amenities.histogram(current.amenities.counts);
+        };
+    }
+
+    // The histograms restricted to the hotels matching the search. Each range of chunks counts into its own arrays,
+    // which are added up at the end
+    public Facets facets(HotelSearchDto search) {
+        Snapshot current = current();
+        Filter filter = Filter.of(current, search);
+        FacetCounts counts = new FacetCounts(current);
+        if (filter != null) {
+            List<FacetCounts> parts = read(current, (chunks, from, to) -> {
+                FacetCounts part = new FacetCounts(current);
+                for (int index = from; index < to; index++) {
+                    Chunk chunk = chunks[index];
+                    for (int row = 0; row < chunk.size; row++) {
+                        if (filter.matches(chunk, row)) {
+                            part.add(chunk, row);
+                        }
+                    }
+                }
+                return part;
+            });
+            parts.forEach(counts::add);
+        }
+        return counts.toFacets(current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Snapshot current() {
+        if (!built) {
+            rebuild();
+        }
+        return snapshot;
+    }
+
+    // Each range of chunks collects its own matches; the ranges are joined in chunk order, so results stay in id order
+    private List<HotelDto> scan(Snapshot snapshot, Filter filter) {
+        List<List<HotelDto>> parts = read(snapshot, (chunks, from, to) -> {
+            List<HotelDto> matches = new ArrayList<>();
+            for (int index = from; index < to; index++) {
+                Chunk chunk = chunks[index];
+                for (int row = 0; row < chunk.size; row++) {
+                    if (filter.matches(chunk, row)) {
+                        matches.add(snapshot.toHotelDto(chunk, row));
+                    }
+                }
+            }
+            return matches;
+        });
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        List<HotelDto> result = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(result::addAll);
+        return result;
+    }
+
+    // Small catalogs, and any catalog when the pool has one thread, are read on the calling thread as one range.
+    // Otherwise the chunks are split into consecutive ranges read by the pool; the results come back in chunk order
+    @SuppressWarnings("unchecked")
+    private <T> List<T> read(Snapshot snapshot, RangeReader<T> reader) {
+        Chunk[] chunks = snapshot.chunks;
+        int ranges = Math.min(chunks.length, pool.getParallelism() * RANGES_PER_THREAD);
+        if (snapshot.size < parallelMinRows || pool.getParallelism() == 1 || ranges < 2) {
+            return List.of(reader.read(chunks, 0, chunks.length));
+        }
+        Object[] results = new Object[ranges];
+        pool.invoke(new RangeTask(chunks, ranges, 0, ranges, reader, results));
+        return (List<T>) Arrays.asList(results);
+    }
+
+    public record Facets(long total, Map<HistogramParam, Map<String, Integer>> counts) {
+    }
+
+    @FunctionalInterface
+    private interface RangeReader<T> {
+        T read(Chunk[] chunks, int from, int to);
+    }
+
+    // Halves the ranges until one is left and stores its result at the range's index
+    private static final class RangeTask extends RecursiveAction {
+        private final Chunk[] chunks;
+        private final int ranges;
+        private final int from;
+        private final int to;
+        private final RangeReader<?> reader;
+        private final Object[] results;
+
+        RangeTask(Chunk[] chunks, int ranges, int from, int to, RangeReader<?> reader, Object[] results) {
+            this.chunks = chunks;
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.reader = reader;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = reader.read(chunks, chunks.length * from / ranges, chunks.length * to / ranges);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(chunks, ranges, from, middle, reader, results),
+                    new RangeTask(chunks, ranges, middle, to, reader, results));
+        }
+    }
+
+    // Counts per dictionary code of one range
+    private static final class FacetCounts {
+        final int[] brands;
+        final int[] cities;
+        final int[] countries;
+        final int[] amenities;
+        int total;
+
+        FacetCounts(Snapshot snapshot) {
+            brands = new int[snapshot.brands.size];
+            cities = new int[snapshot.cities.size];
+            countries = new int[snapshot.countries.size];
+            amenities = new int[snapshot.amenities.size];
+        }
+
+        void add(Chunk chunk, int row) {
+            total++;
+            increment(brands, chunk.brands[row]);
+            increment(cities, chunk.cities[row]);
+            increment(countries, chunk.countries[row]);
+            for (int amenity : chunk.amenities[row]) {
+                amenities[amenity]++;
+            }
+        }
+
+        void add(FacetCounts other) {
+            total += other.total;
+            addAll(brands, other.brands);
+            addAll(cities, other.cities);
+            addAll(countries, other.countries);
+            addAll(amenities, other.amenities);
+        }
+
+        Facets toFacets(Snapshot snapshot) {
+            Map<HistogramParam, Map<String, Integer>> counts = new EnumMap<>(HistogramParam.class);
+            counts.put(HistogramParam.BRAND, snapshot.brands.histogram(brands));
+            counts.put(HistogramParam.CITY, snapshot.cities.histogram(cities));
+            counts.put(HistogramParam.COUNTRY, snapshot.countries.histogram(countries));
+            counts.put(HistogramParam.AMENITIES, snapshot.amenities.histogram(amenities));
+            return new Facets(total, counts);
+        }
+
+        private static void increment(int[] counts, int code) {
+            if (code != NONE) {
+                counts[code]++;
+            }
+        }
+
+        private static void addAll(int[] counts, int[] other) {
+            for (int code = 0; code < counts.length; code++) {
+                counts[code] += other[code];
+            }
+        }
+    }
+
+    // Immutable once published
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Chunk[0], new Dictionary(), new Dictionary(), new Dictionary(),
+                new Dictionary());
+
+        final Chunk[] chunks;
+        final int size;
+        final Dictionary brands;
+        final Dictionary cities;
+        final Dictionary countries;
+        final Dictionary amenities;
+
+        Snapshot(Chunk[] chunks, Dictionary brands, Dictionary cities, Dictionary countries, Dictionary amenities) {
+            this.chunks = chunks;
+            this.size = Arrays.stream(chunks).mapToInt(chunk -> chunk.size).sum();
+            this.brands = brands;
+            this.cities = cities;
+            this.countries = countries;
+            this.amenities = amenities;
+        }
+
+        // Every field is a stored reference, building a DTO allocates nothing else
+        HotelDto toHotelDto(Chunk chunk, int row) {
+            return new HotelDto(chunk.ids[row], chunk.names[row], chunk.descriptions[row], chunk.addresses[row],
+                    chunk.phones[row]);
+        }
+    }
+
+    // Changes of one transaction applied to copies of the snapshot's dictionaries and chunks. Each is copied once per
+    // batch however many hotels it changes, chunks with room for one more row than CHUNK_SIZE
+    private static final class Batch {
+        private final List<Chunk> chunks;
+        private final Set<Chunk> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Dictionary brands;
+        private final Dictionary cities;
+        private final Dictionary countries;
+        private final Dictionary amenities;
+
+        Batch(Snapshot snapshot) {
+            chunks = new ArrayList<>(Arrays.asList(snapshot.chunks));
+            brands = new Dictionary(snapshot.brands);
+            cities = new Dictionary(snapshot.cities);
+            countries = new Dictionary(snapshot.countries);
+            amenities = new Dictionary(snapshot.amenities);
+        }
+
+        // Hotels usually arrive in id order and go to the end of the last chunk, a full last chunk starts a new one.
+        // A hotel committed after one with a higher id is inserted in place, splitting its chunk if it is full
+        void addHotel(Hotel hotel) {
+            int chunkIndex = chunkIndex(hotel.getId());
+            Chunk chunk = chunkIndex < 0 ? null : chunks.get(chunkIndex);
+            int position = chunk == null ? 0 : Arrays.binarySearch(chunk.ids, 0, chunk.size, hotel.getId());
+            if (position >= 0 && chunk != null) {
+                return;
+            }
+            position = chunk == null ? 0 : -position - 1;
+
+            Chunk target;
+            if (chunk == null || (chunk.size == CHUNK_SIZE && position == CHUNK_SIZE && chunkIndex == chunks.size() - 1)) {
+                target = new Chunk(CHUNK_SIZE + 1);
+                copied.add(target);
+                chunks.add(target);
+                chunkIndex = chunks.size() - 1;
+                position = 0;
+            } else {
+                target = owned(chunkIndex);
+            }
+            target.insertRowAt(position);
+            target.set(position, hotel.getId(), hotel.getName(), hotel.getDescription(), brands.count(hotel.getBrand()),
+                    hotel.getAddressLine(), cities.count(hotel.getAddress().getCity()),
+                    countries.count(hotel.getAddress().getCountry()), hotel.getContacts().getPhone(),
+                    amenities.countAll(hotel.getAmenities() == null ? List.of() : hotel.getAmenities()));
+            if (target.size > CHUNK_SIZE) {
+                int half = target.size / 2;
+                chunks.set(chunkIndex, target.range(0, half));
+                chunks.add(chunkIndex + 1, target.range(half, target.size));
+            }
+        }
+
+        void addAmenities(Long hotelId, Collection<String> added) {
+            int chunkIndex = chunkIndex(hotelId);
+            if (chunkIndex < 0) {
+                return;
+            }
+            int row = Arrays.binarySearch(chunks.get(chunkIndex).ids, 0, chunks.get(chunkIndex).size, hotelId);
+            if (row < 0) {
+                return;
+            }
+            Chunk chunk = owned(chunkIndex);
+            int[] codes = chunk.amenities[row];
+            for (String amenity : added) {
+                int code = amenities.code(amenity);
+                if (code == NONE || Arrays.binarySearch(codes, code) < 0) {
+                    code = amenities.count(amenity);
+                    codes = Arrays.copyOf(codes, codes.length + 1);
+                    codes[codes.length - 1] = code;
+                    Arrays.sort(codes);
+                }
+            }
+            chunk.amenities[row] = codes;
+        }
+
+        Snapshot toSnapshot() {
+            return new Snapshot(chunks.toArray(Chunk[]::new), brands, cities, countries, amenities);
+        }
+
+        private Chunk owned(int chunkIndex) {
+            Chunk chunk = chunks.get(chunkIndex);
+            if (copied.contains(chunk)) {
+                return chunk;
+            }
+            Chunk copy = chunk.copy(CHUNK_SIZE + 1);
+            copied.add(copy);
+            chunks.set(chunkIndex, copy);
+            return copy;
+        }
+
+        // The last chunk whose first id is not above the given one, the first chunk for lower ids, -1 when empty
+        private int chunkIndex(long id) {
+            int low = 0;
+            int high = chunks.size() - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (chunks.get(middle).ids[0] <= id) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return chunks.isEmpty() ? -1 : low;
+        }
+    }
+
+    // One array per column; arrays are never written after the chunk is published, batches write to copies
+    private static final class Chunk {
+        long[] ids;
+        String[] names;
+        // Lower-case names for substring search
+        String[] nameKeys;
+        String[] descriptions;
+        int[] brands;
+        // Formatted addresses, shared by every DTO built from the row
+        String[] addresses;
+        int[] cities;
+        int[] countries;
+        String[] phones;
+        // Sorted amenity codes per hotel
+        int[][] amenities;
+        int size;
+
+        Chunk(int capacity) {
+            ids = new long[capacity];
+            names = new String[capacity];
+            nameKeys = new String[capacity];
+            descriptions = new String[capacity];
+            brands = new int[capacity];
+            addresses = new String[capacity];
+            cities = new int[capacity];
+            countries = new int[capacity];
+            phones = new String[capacity];
+            amenities = new int[capacity][];
+        }
+
+        void set(int row, long id, String name, String description, int brand, String address, int city, int country,
+                 String phone, int[] amenityCodes) {
+            ids[row] = id;
+            names[row] = name;
+            nameKeys[row] = Hotel.normalize(name);
+            descriptions[row] = description;
+            brands[row] = brand;
+            addresses[row] = address;
+            cities[row] = city;
+            countries[row] = country;
+            phones[row] = phone;
+            amenities[row] = amenityCodes;
+        }
+
+        Chunk copy(int capacity) {
+            Chunk copy = new Chunk(Math.max(capacity, size));
+            copy.size = size;
+            copyRows(this, 0, copy, 0, size);
+            return copy;
+        }
+
+        // Opens an unset row at the position, the chunk must have room for it
+        void insertRowAt(int position) {
+            copyRows(this, position, this, position + 1, size - position);
+            size++;
+        }
+
+        Chunk range(int from, int to) {
+            Chunk copy = new Chunk(to - from);
+            copy.size = to - from;
+            copyRows(this, from, copy, 0, to - from);
+            return copy;
+        }
+
+        private static void copyRows(Chunk from, int fromRow, Chunk to, int toRow, int rows) {
+            System.arraycopy(from.ids, fromRow, to.ids, toRow, rows);
+            System.arraycopy(from.names, fromRow, to.names, toRow, rows);
+            System.arraycopy(from.nameKeys, fromRow, to.nameKeys, toRow, rows);
+            System.arraycopy(from.descriptions, fromRow, to.descriptions, toRow, rows);
+            System.arraycopy(from.brands, fromRow, to.brands, toRow, rows);
+            System.arraycopy(from.addresses, fromRow, to.addresses, toRow, rows);
+            System.arraycopy(from.cities, fromRow, to.cities, toRow, rows);
+            System.arraycopy(from.countries, fromRow, to.countries, toRow, rows);
+            System.arraycopy(from.phones, fromRow, to.phones, toRow, rows);
+            System.arraycopy(from.amenities, fromRow, to.amenities, toRow, rows);
+        }
+    }
+
+    // Codes are assigned in order of first appearance. A copy shares the values until it adds one of its own,
+    // the counts are always copied
+    private static final class Dictionary {
+        private String[] values;
+        // Lower-case values for prefix search
+        private String[] keys;
+        private Map<String, Integer> codes;
+        private int[] counts;
+        private int size;
+        private boolean shared;
+
+        Dictionary() {
+            values = new String[16];
+            keys = new String[16];
+            codes = new HashMap<>();
+            counts = new int[16];
+        }
+
+        Dictionary(Dictionary other) {
+            values = other.values;
+            keys = other.keys;
+            codes = other.codes;
+            counts = other.counts.clone();
+            size = other.size;
+            shared = true;
+        }
+
+        int code(String value) {
+            Integer code = value == null ? null : codes.get(value);
+            return code == null ? NONE : code;
+        }
+
+        String value(int code) {
+            return code == NONE ? null : values[code];
+        }
+
+        // Adds the value if it is new and counts one more hotel for it
+        int count(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            int code = code(value);
+            if (code == NONE) {
+                if (shared || size == values.length) {
+                    int capacity = size == values.length ? size * 2 : values.length;
+                    values = Arrays.copyOf(values, capacity);
+                    keys = Arrays.copyOf(keys, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                    codes = new HashMap<>(codes);
+                    shared = false;
+                }
+                code = size++;
+                values[code] = value;
+                keys[code] = Hotel.normalize(value);
+                codes.put(value, code);
+            }
+            counts[code]++;
+            return code;
+        }
+
+        // Sorted codes of the distinct values
+        int[] countAll(Collection<String> values) {
+            return values.stream().distinct().mapToInt(this::count).sorted().toArray();
+        }
+
+        BitSet withPrefix(String prefix) {
+            BitSet matching = new BitSet(size);
+            for (int code = 0; code < size; code++) {
+                if (keys[code].startsWith(prefix)) {
+                    matching.set(code);
+                }
+            }
+            return matching;
+        }
+
+        // Counts indexed by code, either the dictionary's own or facet counts of the same snapshot
+        Map<String, Integer> histogram(int[] counts) {
+            Map<String, Integer> histogram = new HashMap<>(size * 2);
+            for (int code = 0; code < size; code++) {
+                if (counts[code] > 0) {
+                    histogram.put(values[code], counts[code]);
+                }
+            }
+            return histogram;
+        }
+    }
+
+    // Dictionary filters are resolved to code sets once, so rows are matched by comparing ints.
+    // A null field places no restriction
+    private record Filter(String name, BitSet brands, BitSet cities, BitSet countries, int[] amenities,
+                          AmenityMatch amenityMatch) {
+        static final Filter ALL = new Filter(null, null, null, null, null, AmenityMatch.ANY);
+
+        // Null when no hotel can match
+        static Filter of(Snapshot snapshot, HotelSearchDto search) {
+            BitSet brands = search.getBrand() == null ? null
+                    : snapshot.brands.withPrefix(Hotel.normalize(search.getBrand()));
+            BitSet countries = search.getCountry() == null ? null
+                    : snapshot.countries.withPrefix(Hotel.normalize(search.getCountry()));
+            BitSet cities = null;
+            if (search.getCity() != null) {
+                cities = new BitSet();
+                int code = snapshot.cities.code(search.getCity());
+                if (code != NONE) {
+                    cities.set(code);
+                }
+            }
+            if (isEmpty(brands) || isEmpty(cities) || isEmpty(countries)) {
+                return null;
+            }
+
+            int[] amenities = null;
+            AmenityMatch match = search.getAmenityMatch() == null ? AmenityMatch.ANY : search.getAmenityMatch();
+            if (search.getAmenities() != null && !search.getAmenities().isEmpty()) {
+                List<String> distinct = search.getAmenities().stream().distinct().toList();
+                amenities = distinct.stream().mapToInt(snapshot.amenities::code).filter(code -> code != NONE).toArray();
+                if (amenities.length == 0 || (match == AmenityMatch.ALL && amenities.length < distinct.size())) {
+                    return null;
+                }
+            }
+            return new Filter(search.getName() == null ? null : Hotel.normalize(search.getName()),
+                    brands, cities, countries, amenities, match);
+        }
+
+        boolean matches(Chunk chunk, int row) {
+            return (brands == null || matches(brands, chunk.brands[row]))
+                    && (cities == null || matches(cities, chunk.cities[row]))
+                    && (countries == null || matches(countries, chunk.countries[row]))
+                    && (amenities == null || matchesAmenities(chunk.amenities[row]))
+                    && (name == null || (chunk.nameKeys[row] != null && chunk.nameKeys[row].contains(name)));
+        }
+
+        private boolean matchesAmenities(int[] codes) {
+            for (int amenity : amenities) {
+                boolean present = Arrays.binarySearch(codes, amenity) >= 0;
+                if (present == (amenityMatch == AmenityMatch.ANY)) {
+                    return present;
+                }
+            }
+            return amenityMatch == AmenityMatch.ALL;
+        }
+
+        private static boolean matches(BitSet codes, int code) {
+            return code != NONE && codes.get(code);
+        }
+
+        private static boolean isEmpty(BitSet codes) {
+            return codes != null && codes.isEmpty();
+        }
+    }
+}
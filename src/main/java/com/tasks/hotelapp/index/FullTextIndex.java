@@ -0,0 +1,394 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.event.TransactionCallbacks;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelText;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Lucene index over hotel names, descriptions, brands and cities, held in memory. A rebuild reads the catalog in
+//id batches into a fresh index on a background thread and swaps it in, hotels created meanwhile are replayed onto it
+@Slf4j
+@Component
+public class FullTextIndex implements RebuildableIndex {
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "description";
+    public static final String BRAND = "brand";
+    public static final String CITY = "city";
+
+    private static final String ID = "id";
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(NAME, 3f, BRAND, 2f, CITY, 2f, DESCRIPTION, 1f);
+    private static final String[] HIGHLIGHTED_FIELDS = {NAME, DESCRIPTION};
+    private static final int[] HIGHLIGHTED_PASSAGES = {1, 2};
+    // Expanded terms score below exact ones, so a typo or an unfinished word never outranks a real match
+    private static final float PREFIX_BOOST = 0.5f;
+    private static final float FUZZY_BOOST = 0.3f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    // Offsets in the postings let the highlighter find matches without analysing the stored text again
+    private static final FieldType HIGHLIGHTED_TEXT = highlightedText();
+
+    private final HotelsRepository hotelsRepository;
+    private final Analyzer analyzer = new FoldingAnalyzer();
+
+    // The read lock covers searches, the write lock adding a hotel and swapping in a rebuilt index
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private Generation current;
+    private List<Document> createdDuringRebuild;
+    private volatile boolean built;
+    // Bound to the transaction while its refresh is registered
+    private final Object refreshPending = new Object();
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("full-text-rebuild").daemon().factory());
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    public record Hit(long hotelId, float score, Map<String, String> highlights) {
+    }
+
+    public FullTextIndex(HotelsRepository hotelsRepository) {
+        this.hotelsRepository = hotelsRepository;
+        this.current = newGeneration();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildInBackground();
+    }
+
+    // Each hotel is added as its event arrives, but searchers are refreshed once when the transaction completes,
+    // so a bulk import pays for one refresh instead of one per hotel
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        Hotel hotel = event.getHotel();
+        Document document = toDocument(hotel.getId(), hotel.getName(), hotel.getDescription(), hotel.getBrand(),
+                hotel.getAddress() == null ? null : hotel.getAddress().getCity());
+        lock.writeLock().lock();
+        try {
+            current.update(document);
+            if (createdDuringRebuild != null) {
+                createdDuringRebuild.add(document);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        refreshAfterTransaction();
+    }
+
+    private void refreshAfterTransaction() {
+        TransactionCallbacks.runOnceAfterTransaction(refreshPending, Ordered.LOWEST_PRECEDENCE, this::refresh);
+    }
+
+    // Searches keep running on the previous searcher while the new one opens
+    private void refresh() {
+        lock.readLock().lock();
+        try {
+            current.searchers.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Requests arriving while a rebuild is queued are folded into it
+    public void rebuildInBackground() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Full-text index rebuild failed", e);
+                }
+            });
+        }
+    }
+
+    // Searches keep using the previous index until the rebuilt one is swapped in
+    @Override
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                createdDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Generation rebuilt = newGeneration();
+            Generation previous = null;
+            try {
+                List<HotelText> batch;
+                long afterId = 0;
+                do {
+                    batch = hotelsRepository.findHotelTextsAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                    for (HotelText text : batch) {
+                        rebuilt.writer.addDocument(toDocument(text.getId(), text.getName(), text.getDescription(),
+                                text.getBrand(), text.getCity()));
+                        afterId = text.getId();
+                    }
+                } while (batch.size() == REBUILD_BATCH_SIZE);
+
+                lock.writeLock().lock();
+                try {
+                    for (Document document : createdDuringRebuild) {
+                        rebuilt.update(document);
+                    }
+                    rebuilt.searchers.maybeRefreshBlocking();
+                    previous = current;
+                    current = rebuilt;
+                    built = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    createdDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                // Nothing searches the replaced index once the write lock was taken, a failed one was never visible
+                closeQuietly(previous != null ? previous : rebuilt);
+            }
+        }
+    }
+
+    // Every query term has to match a field exactly, as a prefix or within the allowed edit distance
+    public List<Hit> search(String text, int limit) {
+        Query query = buildQuery(text);
+        if (query == null) {
+            return List.of();
+        }
+        if (!built) {
+            synchronized (rebuildLock) {
+                if (!built) {
+                    rebuild();
+                }
+            }
+        }
+        lock.readLock().lock();
+        try {
+            IndexSearcher searcher = current.searchers.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                Map<String, String[]> highlights = highlighter(searcher)
+                        .highlightFields(HIGHLIGHTED_FIELDS, query, topDocs, HIGHLIGHTED_PASSAGES);
+                StoredFields storedFields = searcher.storedFields();
+                List<Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    long hotelId = Long.parseLong(storedFields.document(scoreDoc.doc, Set.of(ID)).get(ID));
+                    Map<String, String> fragments = new LinkedHashMap<>();
+                    for (String field : HIGHLIGHTED_FIELDS) {
+                        String fragment = highlights.get(field)[i];
+                        if (fragment != null) {
+                            fragments.put(field, fragment);
+                        }
+                    }
+                    hits.add(new Hit(hotelId, scoreDoc.score, fragments));
+                }
+                return hits;
+            } finally {
+                current.searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            closeQuietly(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Null when the text has no searchable terms
+    Query buildQuery(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                Term fieldTerm = new Term(field, term);
+                anyField.add(new BoostQuery(new TermQuery(fieldTerm), boost), BooleanClause.Occur.SHOULD);
+                if (term.length() >= MIN_PREFIX_LENGTH) {
+                    anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), boost * PREFIX_BOOST), BooleanClause.Occur.SHOULD);
+                }
+                if (term.length() >= MIN_FUZZY_LENGTH) {
+                    int maxEdits = term.length() >= 8 ? 2 : 1;
+                    anyField.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1), boost * FUZZY_BOOST),
+                            BooleanClause.Occur.SHOULD);
+                }
+            });
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                if (!terms.contains(term.toString())) {
+                    terms.add(term.toString());
+                }
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    // Matching terms are highlighted on their own; weight matches would rerun the fuzzy queries for every hit
+    private UnifiedHighlighter highlighter(IndexSearcher searcher) {
+        return UnifiedHighlighter.builder(searcher, analyzer)
+                .withFormatter(new DefaultPassageFormatter("<em>", "</em>", "... ", true))
+                .withMaxNoHighlightPassages(0)
+                .withWeightMatches(false)
+                .build();
+    }
+
+    private static Document toDocument(Long id, String name, String description, String brand, String city) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        addText(document, NAME, name, HIGHLIGHTED_TEXT);
+        addText(document, DESCRIPTION, description, HIGHLIGHTED_TEXT);
+        addText(document, BRAND, brand, TextField.TYPE_NOT_STORED);
+        addText(document, CITY, city, TextField.TYPE_NOT_STORED);
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value, FieldType type) {
+        if (value != null) {
+            document.add(new Field(field, value, type));
+        }
+    }
+
+    private static FieldType highlightedText() {
+        FieldType type = new FieldType(TextField.TYPE_STORED);
+        type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        type.freeze();
+        return type;
+    }
+
+    private Generation newGeneration() {
+        try {
+            return new Generation(analyzer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.warn("Could not close full-text index", e);
+        }
+    }
+
+    // The index is never committed, readers are opened from the writer's uncommitted segments
+    private static final class Generation implements Closeable {
+        private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+        private final IndexWriter writer;
+        private final SearcherManager searchers;
+
+        Generation(Analyzer analyzer) throws IOException {
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setCommitOnClose(false));
+            searchers = new SearcherManager(writer, null);
+        }
+
+        void update(Document document) throws IOException {
+            writer.updateDocument(new Term(ID, document.get(ID)), document);
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOUtils.close(searchers, writer, directory);
+        }
+    }
+
+    // Splits on word boundaries, lower-cases and strips accents, so "Sao Paulo" finds "São Paulo"
+    private static final class FoldingAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+        }
+    }
+}
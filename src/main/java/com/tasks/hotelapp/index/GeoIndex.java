@@ -0,0 +1,231 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.projection.HotelLocation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Hotel coordinates bucketed into a fixed latitude/longitude grid. A radius search only measures hotels in the cells
+//overlapping the circle's bounding box, a nearest-neighbour search doubles the radius until enough hotels are found
+@Component
+@RequiredArgsConstructor
+public class GeoIndex implements RebuildableIndex {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+    // About 28 km at the equator
+    static final double CELL_DEGREES = 0.25;
+
+    private static final int LATITUDE_CELLS = (int) (180 / CELL_DEGREES);
+    private static final int LONGITUDE_CELLS = (int) (360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = MAX_DISTANCE_KM / 180;
+    private static final Comparator<Neighbor> BY_DISTANCE = Comparator.comparingDouble(Neighbor::distanceKm)
+            .thenComparingLong(Neighbor::hotelId);
+
+    private final HotelsRepository hotelsRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, Cell> cells = new HashMap<>();
+    // A hotel committed just before a rebuild read the locations is already indexed when its event arrives
+    private Set<Long> indexedIds = new HashSet<>();
+    private volatile boolean built;
+
+    public record Neighbor(long hotelId, double distanceKm) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        Address address = event.getHotel().getAddress();
+        if (address == null || address.getLatitude() == null || address.getLongitude() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (indexedIds.add(event.getHotel().getId())) {
+                add(cells, event.getHotel().getId(), address.getLatitude(), address.getLongitude());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            Map<Integer, Cell> rebuilt = new HashMap<>();
+            Set<Long> rebuiltIds = new HashSet<>();
+            for (HotelLocation location : hotelsRepository.findHotelLocations()) {
+                if (rebuiltIds.add(location.getId())) {
+                    add(rebuilt, location.getId(), location.getLatitude(), location.getLongitude());
+                }
+            }
+            cells = rebuilt;
+            indexedIds = rebuiltIds;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to limit hotels sorted by distance; within radiusKm when given, otherwise the nearest ones anywhere
+    public List<Neighbor> nearest(double latitude, double longitude, Double radiusKm, int limit) {
+        if (!built) {
+            rebuild();
+        }
+        lock.readLock().lock();
+        try {
+            // Never more hotels than are indexed, otherwise the search below would widen to the whole globe
+            int wanted = Math.min(limit, indexedIds.size());
+            if (wanted <= 0) {
+                return List.of();
+            }
+            PriorityQueue<Neighbor> nearest = new PriorityQueue<>(wanted + 1, BY_DISTANCE.reversed());
+            if (radiusKm != null) {
+                collect(latitude, longitude, radiusKm, wanted, nearest);
+            } else {
+                double radius = CELL_DEGREES * KM_PER_DEGREE;
+                while (collect(latitude, longitude, radius, wanted, nearest) < wanted && radius < MAX_DISTANCE_KM) {
+                    nearest.clear();
+                    radius = Math.min(radius * 2, MAX_DISTANCE_KM);
+                }
+            }
+            List<Neighbor> result = new ArrayList<>(nearest);
+            result.sort(BY_DISTANCE);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the limit closest hotels within the radius in a max-heap and returns how many hotels are within it
+    private int collect(double latitude, double longitude, double radiusKm, int limit, PriorityQueue<Neighbor> nearest) {
+        double angularRadius = Math.min(radiusKm / EARTH_RADIUS_KM, Math.PI);
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        int fromLatitude = latitudeCell(Math.max(-90, latitude - latitudeDelta));
+        int toLatitude = latitudeCell(Math.min(90, latitude + latitudeDelta));
+        // Circles reaching a pole span every longitude, otherwise the widest point of the circle bounds the box
+        int fromLongitude = 0;
+        int longitudeCells = LONGITUDE_CELLS;
+        if (Math.abs(latitude) + latitudeDelta < 90) {
+            double longitudeDelta = Math.toDegrees(Math.asin(Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude))));
+            fromLongitude = longitudeCell(longitude - longitudeDelta);
+            longitudeCells = Math.min(LONGITUDE_CELLS,
+                    Math.floorMod(longitudeCell(longitude + longitudeDelta) - fromLongitude, LONGITUDE_CELLS) + 1);
+        }
+
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        double cosLatitude = Math.cos(latitudeRadians);
+        int found = 0;
+        // A box with more cells than are occupied is cheaper to answer from the occupied cells
+        if ((long) (toLatitude - fromLatitude + 1) * longitudeCells > cells.size()) {
+            for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+                int latitudeCell = entry.getKey() / LONGITUDE_CELLS;
+                int longitudeCell = entry.getKey() % LONGITUDE_CELLS;
+                if (latitudeCell >= fromLatitude && latitudeCell <= toLatitude
+                        && Math.floorMod(longitudeCell - fromLongitude, LONGITUDE_CELLS) < longitudeCells) {
+                    found += collect(entry.getValue(), latitudeRadians, longitudeRadians, cosLatitude, radiusKm,
+                            limit, nearest);
+                }
+            }
+            return found;
+        }
+        for (int latitudeCell = fromLatitude; latitudeCell <= toLatitude; latitudeCell++) {
+            for (int i = 0; i < longitudeCells; i++) {
+                Cell cell = cells.get(latitudeCell * LONGITUDE_CELLS + (fromLongitude + i) % LONGITUDE_CELLS);
+                if (cell != null) {
+                    found += collect(cell, latitudeRadians, longitudeRadians, cosLatitude, radiusKm, limit, nearest);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int collect(Cell cell, double latitudeRadians, double longitudeRadians, double cosLatitude,
+                               double radiusKm, int limit, PriorityQueue<Neighbor> nearest) {
+        int found = 0;
+        for (int j = 0; j < cell.size; j++) {
+            double distance = distanceKm(latitudeRadians, longitudeRadians, cosLatitude,
+                    cell.latitudes[j], cell.longitudes[j], cell.cosLatitudes[j]);
+            if (distance > radiusKm) {
+                continue;
+            }
+            found++;
+            Neighbor neighbor = new Neighbor(cell.hotelIds[j], distance);
+            if (nearest.size() < limit) {
+                nearest.add(neighbor);
+            } else if (BY_DISTANCE.compare(neighbor, nearest.peek()) < 0) {
+                nearest.poll();
+                nearest.add(neighbor);
+            }
+        }
+        return found;
+    }
+
+    // Haversine distance between points given in radians
+    private static double distanceKm(double latitude1, double longitude1, double cosLatitude1,
+                                     double latitude2, double longitude2, double cosLatitude2) {
+        double sinLatitude = Math.sin((latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin((longitude2 - longitude1) / 2);
+        double a = sinLatitude * sinLatitude + cosLatitude1 * cosLatitude2 * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static void add(Map<Integer, Cell> cells, Long hotelId, double latitude, double longitude) {
+        int key = latitudeCell(latitude) * LONGITUDE_CELLS + longitudeCell(longitude);
+        cells.computeIfAbsent(key, k -> new Cell()).add(hotelId, latitude, longitude);
+    }
+
+    private static int latitudeCell(double latitude) {
+        return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LONGITUDE_CELLS);
+    }
+
+    // Coordinates are kept in radians with the latitude cosine precomputed, as the distance formula needs them
+    private static final class Cell {
+        private long[] hotelIds = new long[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private double[] cosLatitudes = new double[4];
+        private int size;
+
+        void add(long hotelId, double latitude, double longitude) {
+            if (size == hotelIds.length) {
+                hotelIds = Arrays.copyOf(hotelIds, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+                cosLatitudes = Arrays.copyOf(cosLatitudes, size * 2);
+            }
+            hotelIds[size] = hotelId;
+            latitudes[size] = Math.toRadians(latitude);
+            longitudes[size] = Math.toRadians(longitude);
+            cosLatitudes[size] = Math.cos(latitudes[size]);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.HistogramParam;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HistogramEntry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//In-memory histogram counters, built once from the database and then updated incrementally on writes
+@Component
+public class HotelHistogramIndex implements RebuildableIndex {
+    private final HotelsRepository hotelsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Writers and readers share the read lock, only a rebuild takes the write lock. A writing transaction holds the
+    // read lock from before its commit until its counts are applied, so a rebuild never sees a commit whose
+    // increments are still to come
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<HistogramParam, Map<String, LongAdder>> counters = createCounters();
+    // Bound to a transaction while its writes are collected
+    private final Object pendingChanges = new Object();
+    private volatile boolean built;
+
+    public HotelHistogramIndex(HotelsRepository hotelsRepository, PlatformTransactionManager transactionManager) {
+        this.hotelsRepository = hotelsRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @EventListener
+    public void onHotelCreated(HotelCreatedEvent event) {
+        applyOnCommit(() -> {
+            Hotel hotel = event.getHotel();
+            increment(HistogramParam.BRAND, hotel.getBrand());
+            if (hotel.getAddress() != null) {
+                increment(HistogramParam.CITY, hotel.getAddress().getCity());
+                increment(HistogramParam.COUNTRY, hotel.getAddress().getCountry());
+            }
+            if (hotel.getAmenities() != null) {
+                hotel.getAmenities().forEach(amenity -> increment(HistogramParam.AMENITIES, amenity));
+            }
+        });
+    }
+
+    @EventListener
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        applyOnCommit(() -> event.getAmenities().forEach(amenity -> increment(HistogramParam.AMENITIES, amenity)));
+    }
+
+    public Map<String, Integer> snapshot(HistogramParam param) {
+        if (!built) {
+            rebuild();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, LongAdder> paramCounters = counters.get(param);
+            Map<String, Integer> histogram = new HashMap<>(paramCounters.size() * 2);
+            paramCounters.forEach((key, counter) -> histogram.put(key, counter.intValue()));
+            return histogram;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The connection is taken before the write lock, writers waiting to commit may hold the rest of the pool
+    @Override
+    public void rebuild() {
+        readOnlyTransaction.executeWithoutResult(status -> rebuildCounters());
+    }
+
+    private void rebuildCounters() {
+        lock.writeLock().lock();
+        try {
+            for (HistogramParam param : HistogramParam.values()) {
+                Map<String, LongAdder> paramCounters = counters.get(param);
+                paramCounters.clear();
+                for (HistogramEntry entry : findEntries(param)) {
+                    if (entry.getLabel() != null) {
+                        paramCounters.computeIfAbsent(entry.getLabel(), key -> new LongAdder()).add(entry.getTotal());
+                    }
+                }
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writes that commit while the check runs can be reported as a mismatch, so callers should re-check before acting
+    public Map<HistogramParam, Boolean> checkConsistency() {
+        Map<HistogramParam, Boolean> result = new EnumMap<>(HistogramParam.class);
+        for (HistogramParam param : HistogramParam.values()) {
+            Map<String, Integer> expected = new HashMap<>();
+            for (HistogramEntry entry : findEntries(param)) {
+                if (entry.getLabel() != null) {
+                    expected.put(entry.getLabel(), Math.toIntExact(entry.getTotal()));
+                }
+            }
+            result.put(param, expected.equals(snapshot(param)));
+        }
+        return result;
+    }
+
+    // Events are collected while the transaction runs; the read lock is taken in beforeCommit and released once the
+    // transaction has completed, with the counts applied in between only if it committed
+    private void applyOnCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.readLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Runnable> pending = (List<Runnable>) TransactionSynchronizationManager.getResource(pendingChanges);
+        if (pending == null) {
+            List<Runnable> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingChanges, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    lock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    changes.forEach(Runnable::run);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(pendingChanges);
+                    if (locked) {
+                        lock.readLock().unlock();
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private void increment(HistogramParam param, String key) {
+        if (key != null) {
+            counters.get(param).computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
+
+    private List<HistogramEntry> findEntries(HistogramParam param) {
+        return switch (param) {
+            case BRAND -> hotelsRepository.findBrandHistogram();
+            case CITY -> hotelsRepository.findCityHistogram();
+            case COUNTRY -> hotelsRepository.findCountryHistogram();
+            case AMENITIES -> hotelsRepository.findAmenityHistogram();
+        };
+    }
+
+    private static Map<HistogramParam, Map<String, LongAdder>> createCounters() {
+        Map<HistogramParam, Map<String, LongAdder>> map = new EnumMap<>(HistogramParam.class);
+        for (HistogramParam param : HistogramParam.values()) {
+            map.put(param, new ConcurrentHashMap<>());
+        }
+        return map;
+    }
+}
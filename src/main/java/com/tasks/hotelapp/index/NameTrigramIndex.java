@@ -0,0 +1,109 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelName;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Trigram -> bitmap of hotel ids over lowercase names, answers substring name searches without a table scan
+@Component
+@RequiredArgsConstructor
+public class NameTrigramIndex implements RebuildableIndex {
+    public static final int GRAM_LENGTH = 3;
+
+    private final HotelsRepository hotelsRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, BitSet> postings = new HashMap<>();
+    private Map<Integer, String> names = new HashMap<>();
+    private volatile boolean built;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        Hotel hotel = event.getHotel();
+        lock.writeLock().lock();
+        try {
+            add(postings, names, hotel.getId(), hotel.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            Map<String, BitSet> rebuiltPostings = new HashMap<>();
+            Map<Integer, String> rebuiltNames = new HashMap<>();
+            for (HotelName hotelName : hotelsRepository.findHotelNames()) {
+                add(rebuiltPostings, rebuiltNames, hotelName.getId(), hotelName.getName());
+            }
+            postings = rebuiltPostings;
+            names = rebuiltNames;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns ids of hotels whose name contains the query, or null when the query is too short to be indexed
+    public BitSet search(String query) {
+        String normalized = Hotel.normalize(query);
+        if (!built || normalized.length() < GRAM_LENGTH) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            BitSet candidates = BitSets.intersect(trigrams(normalized).stream()
+                    .map(trigram -> postings.getOrDefault(trigram, new BitSet()))
+                    .toList());
+            // Trigram hits can come from different parts of the name, so confirm the whole substring
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                if (!names.get(id).contains(normalized)) {
+                    candidates.clear(id);
+                }
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void add(Map<String, BitSet> postings, Map<Integer, String> names, Long hotelId, String name) {
+        String normalized = Hotel.normalize(name);
+        if (normalized == null) {
+            return;
+        }
+        int index = Math.toIntExact(hotelId);
+        names.put(index, normalized);
+        for (String trigram : trigrams(normalized)) {
+            postings.computeIfAbsent(trigram, key -> new BitSet()).set(index);
+        }
+    }
+
+    static Set<String> trigrams(String value) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            trigrams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,6 @@
+package com.tasks.hotelapp.index;
+
+//In-memory structure derived from HotelsRepository that can be reloaded from the database at any time
+public interface RebuildableIndex {
+    void rebuild();
+}
@@ -0,0 +1,44 @@
+package com.tasks.hotelapp.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+//Writes HotelDto fields straight to the generator instead of going through bean properties, with the field names
+//encoded once. The output is the same as the default serializer's, nulls included
+@JsonComponent
+public class HotelDtoSerializer extends StdSerializer<HotelDto> {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString ADDRESS = new SerializedString("address");
+    private static final SerializableString PHONE = new SerializedString("phone");
+
+    public HotelDtoSerializer() {
+        super(HotelDto.class);
+    }
+
+    @Override
+    public void serialize(HotelDto hotel, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(hotel);
+        generator.writeFieldName(ID);
+        generator.writeNumber(hotel.getId());
+        writeString(generator, NAME, hotel.getName());
+        writeString(generator, DESCRIPTION, hotel.getDescription());
+        writeString(generator, ADDRESS, hotel.getAddress());
+        writeString(generator, PHONE, hotel.getPhone());
+        generator.writeEndObject();
+    }
+
+    // writeString writes null for a null value
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+}
@@ -20,4 +20,22 @@ public class Address {
     private String country;
 
     private String postCode;
+
+    // Optional, in degrees; hotels without coordinates are left out of nearby searches
+    private Double latitude;
+
+    private Double longitude;
+
+    public Address(int houseNumber, String street, String city, String country, String postCode) {
+        this(houseNumber, street, city, country, postCode, null, null);
+    }
+
+    // The single line shown in hotel lists
+    public String format() {
+        return format(houseNumber, street, city, postCode, country);
+    }
+
+    public static String format(int houseNumber, String street, String city, String postCode, String country) {
+        return houseNumber + " " + street + ", " + city + ", " + postCode + ", " + country;
+    }
 }
@@ -0,0 +1,6 @@
+package com.tasks.hotelapp.model;
+
+public enum ChangeType {
+    HOTEL_CREATED,
+    AMENITIES_ADDED
+}
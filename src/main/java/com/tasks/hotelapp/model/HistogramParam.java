@@ -0,0 +1,8 @@
+package com.tasks.hotelapp.model;
+
+public enum HistogramParam {
+    BRAND,
+    CITY,
+    COUNTRY,
+    AMENITIES
+}
@@ -0,0 +1,7 @@
+package com.tasks.hotelapp.model;
+
+public enum ImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
@@ -0,0 +1,7 @@
+package com.tasks.hotelapp.model;
+
+public enum OutboxStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.tasks.hotelapp.model;
+
+public enum OutboxType {
+    CREATE_HOTEL,
+    ADD_AMENITIES
+}
@@ -0,0 +1,5 @@
+package com.tasks.hotelapp.model;
+
+public enum ReadEngine {
+    DATABASE, MEMORY
+}
@@ -0,0 +1,17 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AmenityBatchDto {
+    // Target hotels are given either by id or by a search filter
+    private List<Long> hotelIds;
+    private HotelSearchDto filter;
+    private List<String> amenities;
+}
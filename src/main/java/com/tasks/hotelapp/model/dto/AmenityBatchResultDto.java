@@ -0,0 +1,12 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class AmenityBatchResultDto {
+    private int matchedHotels;
+    private int updatedHotels;
+    private int addedAmenities;
+}
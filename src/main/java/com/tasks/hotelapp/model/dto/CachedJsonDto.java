@@ -0,0 +1,9 @@
+package com.tasks.hotelapp.model.dto;
+
+//Serialized response body with its gzip encoding and the number of items it holds
+public record CachedJsonDto(byte[] json, byte[] gzip, int count) {
+
+    public int weight() {
+        return json.length + gzip.length;
+    }
+}
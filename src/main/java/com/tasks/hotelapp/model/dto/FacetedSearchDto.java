@@ -0,0 +1,17 @@
+package com.tasks.hotelapp.model.dto;
+
+import com.tasks.hotelapp.model.HistogramParam;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class FacetedSearchDto {
+    private HotelSliceDto hotels;
+    // Number of hotels matching the filters
+    private long total;
+    // Same counts as the histograms, restricted to the hotels matching the filters
+    private Map<HistogramParam, Map<String, Integer>> facets;
+}
@@ -0,0 +1,21 @@
+package com.tasks.hotelapp.model.dto;
+
+import com.tasks.hotelapp.model.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class HotelChangeDto {
+    private long sequence;
+    private ChangeType type;
+    private Long hotelId;
+    private Instant timestamp;
+    // The created hotel, null for other changes
+    private HotelDto hotel;
+    // Amenities the hotel gained, null for other changes
+    private List<String> amenities;
+}
@@ -0,0 +1,14 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class HotelChangesDto {
+    private List<HotelChangeDto> changes;
+    // Pass as after to get the following changes
+    private long lastSequence;
+}
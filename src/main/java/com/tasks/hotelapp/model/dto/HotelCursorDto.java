@@ -0,0 +1,14 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class HotelCursorDto {
+    private List<HotelDto> hotels;
+    // Pass as afterId to get the next page, null when there are no more hotels
+    private Long nextAfterId;
+}
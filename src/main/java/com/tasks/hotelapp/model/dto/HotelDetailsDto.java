@@ -0,0 +1,44 @@
+package com.tasks.hotelapp.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.ArrivalTime;
+import com.tasks.hotelapp.model.Contacts;
+import com.tasks.hotelapp.model.entity.Hotel;
+
+import java.util.List;
+
+//Immutable copy of a hotel for the hotel cache, serialized like the entity. Nothing in it is shared with a
+//persistence context, so one cached instance can be handed to every request
+public record HotelDetailsDto(Long id, String name, String description, String brand, AddressDetails address,
+                              ContactDetails contacts, ArrivalDetails arrivalTime, List<String> amenities,
+                              @JsonIgnore Long version) {
+
+    public static HotelDetailsDto of(Hotel hotel) {
+        return new HotelDetailsDto(hotel.getId(), hotel.getName(), hotel.getDescription(), hotel.getBrand(),
+                AddressDetails.of(hotel.getAddress()), ContactDetails.of(hotel.getContacts()),
+                ArrivalDetails.of(hotel.getArrivalTime()),
+                hotel.getAmenities() == null ? List.of() : List.copyOf(hotel.getAmenities()), hotel.getVersion());
+    }
+
+    public record AddressDetails(int houseNumber, String street, String city, String country, String postCode,
+                                 Double latitude, Double longitude) {
+        static AddressDetails of(Address address) {
+            return address == null ? null : new AddressDetails(address.getHouseNumber(), address.getStreet(),
+                    address.getCity(), address.getCountry(), address.getPostCode(), address.getLatitude(),
+                    address.getLongitude());
+        }
+    }
+
+    public record ContactDetails(String phone, String email) {
+        static ContactDetails of(Contacts contacts) {
+            return contacts == null ? null : new ContactDetails(contacts.getPhone(), contacts.getEmail());
+        }
+    }
+
+    public record ArrivalDetails(String checkIn, String checkOut) {
+        static ArrivalDetails of(ArrivalTime arrivalTime) {
+            return arrivalTime == null ? null : new ArrivalDetails(arrivalTime.getCheckIn(), arrivalTime.getCheckOut());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class HotelDistanceDto {
+    private HotelDto hotel;
+    private double distanceKm;
+}
@@ -0,0 +1,15 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class HotelImportDto {
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<HotelImportResultDto> results;
+}
@@ -0,0 +1,15 @@
+package com.tasks.hotelapp.model.dto;
+
+import com.tasks.hotelapp.model.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class HotelImportResultDto {
+    // Position of the record in the request body, starting from 0
+    private int index;
+    private ImportStatus status;
+    private Long id;
+    private String message;
+}
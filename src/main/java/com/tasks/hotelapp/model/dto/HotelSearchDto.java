@@ -0,0 +1,20 @@
+package com.tasks.hotelapp.model.dto;
+
+import com.tasks.hotelapp.model.AmenityMatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelSearchDto {
+    private String name;
+    private String brand;
+    private String city;
+    private String country;
+    private List<String> amenities;
+    private AmenityMatch amenityMatch = AmenityMatch.ANY;
+}
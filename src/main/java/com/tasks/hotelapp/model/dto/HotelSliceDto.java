@@ -0,0 +1,15 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class HotelSliceDto {
+    private List<HotelDto> hotels;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
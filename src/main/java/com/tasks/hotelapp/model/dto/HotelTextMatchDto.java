@@ -0,0 +1,15 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class HotelTextMatchDto {
+    private HotelDto hotel;
+    private float score;
+    // Matched fragments of the name and description with the matches wrapped in <em> tags
+    private Map<String, String> highlights;
+}
@@ -0,0 +1,20 @@
+package com.tasks.hotelapp.model.dto;
+
+import com.tasks.hotelapp.model.OutboxStatus;
+import com.tasks.hotelapp.model.OutboxType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@Data
+public class OutboxEntryDto {
+    private Long id;
+    private OutboxType type;
+    private OutboxStatus status;
+    private Long hotelId;
+    private String error;
+    private Instant createdAt;
+    private Instant processedAt;
+}
@@ -0,0 +1,18 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class SlowQueryDto {
+    private Instant timestamp;
+    private String repositoryMethod;
+    private long elapsedMillis;
+    // Rows returned or updated, null when the method returns a stream
+    private Integer rowCount;
+    private List<SlowStatementDto> statements;
+}
@@ -0,0 +1,16 @@
+package com.tasks.hotelapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class SlowStatementDto {
+    private String sql;
+    private List<String> parameters;
+    private long elapsedMillis;
+    // EXPLAIN output, null for statements other than select
+    private String plan;
+}
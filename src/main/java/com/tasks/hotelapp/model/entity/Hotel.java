@@ -1,15 +1,26 @@
 package com.tasks.hotelapp.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.tasks.hotelapp.model.Address;
 import com.tasks.hotelapp.model.ArrivalTime;
 import com.tasks.hotelapp.model.Contacts;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Entity
-@Table(name = "hotels")
+@Table(name = "hotels", indexes = {
+        @Index(name = "idx_hotels_name_lc", columnList = "name_lc"),
+        @Index(name = "idx_hotels_brand_lc", columnList = "brand_lc"),
+        @Index(name = "idx_hotels_country_lc", columnList = "country_lc")
+})
+@NamedEntityGraph(name = Hotel.WITH_AMENITIES, attributeNodes = @NamedAttributeNode("amenities"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,11 +28,20 @@ import java.util.List;
 @Builder
 @Data
 public class Hotel {
+    public static final String WITH_AMENITIES = "Hotel.amenities";
+    public static final String ID_SEQUENCE = "hotels_seq";
 
+    // A pooled sequence lets Hibernate assign ids up front and batch inserts, which IDENTITY rules out
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
     private Long id;
 
+    // Also incremented when amenities change, serves as the hotel's ETag
+    @JsonIgnore
+    @Version
+    private Long version;
+
     private String name;
 
     @Column(length = 1000,nullable = true)
@@ -39,16 +59,58 @@ public class Hotel {
     private ArrivalTime arrivalTime;
 
 
+    // Hotels loaded without the entity graph initialize amenities in batches instead of one query per hotel
     @ElementCollection
-    @CollectionTable(name = "hotel_amenities", joinColumns = @JoinColumn(name = "hotel_id"))
+    @BatchSize(size = 100)
+    @CollectionTable(name = "hotel_amenities", joinColumns = @JoinColumn(name = "hotel_id"),
+            indexes = @Index(name = "idx_hotel_amenities_amenity_hotel", columnList = "amenity, hotel_id"))
     @Column(name = "amenity")
-    private List<String> amenities;
+    private Set<String> amenities;
+
+    // Lowercase copies of the searchable columns, so case-insensitive lookups can use an index instead of lower(col)
+    @JsonIgnore
+    @Column(name = "name_lc")
+    private String nameNormalized;
+
+    @JsonIgnore
+    @Column(name = "brand_lc")
+    private String brandNormalized;
 
-    public boolean addToAmenities(List<String> amenitiesToAdd){
-        if(amenities.containsAll(amenitiesToAdd)){
-            return false;
+    @JsonIgnore
+    @Column(name = "country_lc")
+    private String countryNormalized;
+
+    // The formatted address, stored so hotel lists read one column instead of formatting five on every request
+    @JsonIgnore
+    @Column(name = "address_line", length = 1000)
+    private String addressLine;
+
+    // Returns the amenities that the hotel did not have yet
+    public List<String> addToAmenities(Collection<String> amenitiesToAdd){
+        List<String> added = new ArrayList<>();
+        for (String amenity : amenitiesToAdd) {
+            if (amenities.add(amenity)) {
+                added.add(amenity);
+            }
         }
-        amenities.addAll(amenitiesToAdd);
-        return true;
+        return added;
+    }
+
+    // Hotels that have not been saved yet have no stored line, theirs is formatted on the fly
+    public String getAddressLine() {
+        return addressLine != null || address == null ? addressLine : address.format();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateDerivedColumns() {
+        nameNormalized = normalize(name);
+        brandNormalized = normalize(brand);
+        countryNormalized = address == null ? null : normalize(address.getCountry());
+        addressLine = address == null ? null : address.format();
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
     }
 }
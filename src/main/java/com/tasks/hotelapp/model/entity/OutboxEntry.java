@@ -0,0 +1,49 @@
+package com.tasks.hotelapp.model.entity;
+
+import com.tasks.hotelapp.model.OutboxStatus;
+import com.tasks.hotelapp.model.OutboxType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// A write accepted by the API and applied later by the outbox worker
+@Entity
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_status", columnList = "status, id"),
+        @Index(name = "idx_outbox_processed_at", columnList = "processedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEntry {
+    public static final String ID_SEQUENCE = "outbox_seq";
+    public static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxType type;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    // Target hotel of an amenity update, the created hotel once a creation is applied
+    private Long hotelId;
+
+    // Request body as JSON
+    @Lob
+    private String payload;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String error;
+
+    private Instant createdAt;
+
+    private Instant processedAt;
+}
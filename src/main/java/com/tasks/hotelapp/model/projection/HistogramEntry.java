@@ -0,0 +1,8 @@
+package com.tasks.hotelapp.model.projection;
+
+//Projection for grouped (value, count) histogram queries
+public interface HistogramEntry {
+    String getLabel();
+
+    long getTotal();
+}
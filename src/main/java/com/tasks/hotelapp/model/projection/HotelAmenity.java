@@ -0,0 +1,7 @@
+package com.tasks.hotelapp.model.projection;
+
+public interface HotelAmenity {
+    Long getHotelId();
+
+    String getAmenity();
+}
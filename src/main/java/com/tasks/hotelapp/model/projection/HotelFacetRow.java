@@ -0,0 +1,5 @@
+package com.tasks.hotelapp.model.projection;
+
+// The columns faceted search counts, built by a constructor expression in HotelsRepositoryCustomImpl
+public record HotelFacetRow(Long id, String brand, String city, String country) {
+}
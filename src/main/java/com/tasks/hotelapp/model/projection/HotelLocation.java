@@ -0,0 +1,9 @@
+package com.tasks.hotelapp.model.projection;
+
+public interface HotelLocation {
+    Long getId();
+
+    double getLatitude();
+
+    double getLongitude();
+}
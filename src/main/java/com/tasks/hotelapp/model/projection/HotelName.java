@@ -0,0 +1,7 @@
+package com.tasks.hotelapp.model.projection;
+
+public interface HotelName {
+    Long getId();
+
+    String getName();
+}
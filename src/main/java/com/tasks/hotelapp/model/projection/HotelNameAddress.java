@@ -0,0 +1,9 @@
+package com.tasks.hotelapp.model.projection;
+
+import com.tasks.hotelapp.model.Address;
+
+public interface HotelNameAddress {
+    String getName();
+
+    Address getAddress();
+}
@@ -0,0 +1,19 @@
+package com.tasks.hotelapp.model.projection;
+
+public interface HotelRow {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getBrand();
+
+    String getAddressLine();
+
+    String getCity();
+
+    String getCountry();
+
+    String getPhone();
+}
@@ -0,0 +1,13 @@
+package com.tasks.hotelapp.model.projection;
+
+public interface HotelText {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getBrand();
+
+    String getCity();
+}
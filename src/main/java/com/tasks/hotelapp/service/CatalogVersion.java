@@ -0,0 +1,48 @@
+package com.tasks.hotelapp.service;
+
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.event.TransactionCallbacks;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//Bumped once after every transaction that changed the catalog, whole-catalog responses use it as their ETag.
+//Starts from the boot time so versions from before a restart are not reused
+@Component
+public class CatalogVersion {
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastModified = System.currentTimeMillis();
+    // Bound to a transaction once its bump is scheduled
+    private final Object bumpPending = new Object();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        bumpAfterTransaction();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        bumpAfterTransaction();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    // Ordered last, after the in-memory catalog has swapped in the same writes
+    private void bumpAfterTransaction() {
+        TransactionCallbacks.runOnceAfterTransaction(bumpPending, Ordered.LOWEST_PRECEDENCE, this::bump);
+    }
+
+    private void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,178 @@
+package com.tasks.hotelapp.service;
+
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.exception.ChangeOffsetExpiredException;
+import com.tasks.hotelapp.exception.NotValidDataException;
+import com.tasks.hotelapp.model.ChangeType;
+import com.tasks.hotelapp.model.dto.HotelChangeDto;
+import com.tasks.hotelapp.model.dto.HotelChangesDto;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Keeps the last committed hotel changes in a ring buffer, numbered in commit order, and pushes new ones to
+//stream subscribers. Sequences start from the boot time, so offsets from before a restart are reported as expired
+@Component
+public class ChangeLog {
+    private static final String OFFSET_EXPIRED = "Changes after this offset are no longer retained, re-read the catalog";
+    private static final String WRONG_LIMIT = "Limit must be between 1 and " + HotelService.MAX_PAGE_SIZE;
+
+    private final HotelChangeDto[] changes;
+    private final int subscriberBuffer;
+    private long lastSequence = System.currentTimeMillis();
+    private int size;
+
+    // Every subscriber has its own bounded queue drained by at most one sender at a time, so a slow client only
+    // delays itself. A client whose queue is full is completed and catches up from the ring buffer on reconnect
+    private final ExecutorService senders = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("change-log-sender-", 0).daemon().factory());
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    public ChangeLog(@Value("${hotelapp.changes.capacity}") int capacity,
+                     @Value("${hotelapp.changes.subscriber-buffer}") int subscriberBuffer) {
+        this.changes = new HotelChangeDto[capacity];
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        HotelDto hotel = HotelService.convertToHotelDto(event.getHotel());
+        append(ChangeType.HOTEL_CREATED, hotel.getId(), hotel, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        append(ChangeType.AMENITIES_ADDED, event.getHotelId(), null, List.copyOf(event.getAmenities()));
+    }
+
+    // Without an offset reading starts from the oldest retained change
+    public synchronized HotelChangesDto read(Long after, int limit) {
+        if (limit < 1 || limit > HotelService.MAX_PAGE_SIZE) {
+            throw new NotValidDataException(WRONG_LIMIT);
+        }
+        List<HotelChangeDto> result = changesAfter(after, limit);
+        long last = result.isEmpty() ? firstAfter(after) - 1 : result.get(result.size() - 1).getSequence();
+        return new HotelChangesDto(result, last);
+    }
+
+    public SseEmitter subscribe(Long after) {
+        return subscribe(after, new SseEmitter());
+    }
+
+    // The backlog is queued before any change appended later, so the subscriber gets every change once and in order
+    synchronized SseEmitter subscribe(Long after, SseEmitter emitter) {
+        List<HotelChangeDto> backlog = changesAfter(after, changes.length);
+        Subscriber subscriber = new Subscriber(emitter, backlog.size() + subscriberBuffer);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        backlog.forEach(subscriber::offer);
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private synchronized void append(ChangeType type, Long hotelId, HotelDto hotel, List<String> amenities) {
+        HotelChangeDto change = new HotelChangeDto(++lastSequence, type, hotelId, Instant.now(), hotel, amenities);
+        changes[(int) (change.getSequence() % changes.length)] = change;
+        size = Math.min(size + 1, changes.length);
+        subscribers.removeIf(subscriber -> !subscriber.offer(change));
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private List<HotelChangeDto> changesAfter(Long after, int limit) {
+        long from = firstAfter(after);
+        if (from < lastSequence - size + 1 || from > lastSequence + 1) {
+            throw new ChangeOffsetExpiredException(OFFSET_EXPIRED);
+        }
+        long to = Math.min(lastSequence, from + limit - 1);
+        List<HotelChangeDto> result = new ArrayList<>((int) Math.max(0, to - from + 1));
+        for (long sequence = from; sequence <= to; sequence++) {
+            result.add(changes[(int) (sequence % changes.length)]);
+        }
+        return result;
+    }
+
+    private long firstAfter(Long after) {
+        return after == null ? lastSequence - size + 1 : after + 1;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<HotelChangeDto> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        // Called with the change log locked, so changes are queued in sequence order. Completing a lagging client
+        // waits for its send in progress, so it happens on a sender thread rather than under the lock
+        boolean offer(HotelChangeDto change) {
+            if (closed) {
+                return false;
+            }
+            if (!pending.offer(change)) {
+                closed = true;
+                senders.execute(emitter::complete);
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            HotelChangeDto change;
+            while (!closed && (change = pending.poll()) != null) {
+                if (!send(emitter, change)) {
+                    closed = true;
+                }
+            }
+            draining.set(false);
+            // A change queued after the last poll but before the flag was cleared found the drain still running
+            if (!closed && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, HotelChangeDto change) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.getSequence()))
+                    .name(change.getType().name())
+                    .data(change, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.tasks.hotelapp.service;
+
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+//Evicts a cached hotel only after the write has committed. Hotels are loaded inside the cache's atomic compute, so
+//the eviction waits for a read that overlapped the write and removes what it cached
+@Component
+@AllArgsConstructor
+public class HotelCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        evict(event.getHotel().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        evict(event.getHotelId());
+    }
+
+    private void evict(Long id) {
+        Cache cache = cacheManager.getCache(HotelService.HOTEL_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tasks.hotelapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasks.hotelapp.model.ImportStatus;
+import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelImportDto;
+import com.tasks.hotelapp.model.dto.HotelImportResultDto;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@AllArgsConstructor
+@Timed(value = HotelService.SERVICE_TIMER, histogram = true)
+public class HotelImportService {
+    public static final int CHUNK_SIZE = 500;
+
+    private static final String MALFORMED_RECORD = "Malformed record, the rest of the input was not imported";
+
+    private final HotelService hotelService;
+    private final ObjectMapper objectMapper;
+
+    // Reads a JSON array or NDJSON one record at a time; every chunk commits on its own,
+    // so hotels imported before a malformed record are kept
+    public HotelImportDto importHotels(InputStream input) {
+        List<HotelImportResultDto> results = new ArrayList<>();
+        List<HotelCreateDto> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (MappingIterator<HotelCreateDto> hotels = objectMapper.readerFor(HotelCreateDto.class).readValues(input)) {
+            while (hotels.hasNextValue()) {
+                chunk.add(hotels.nextValue());
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(hotelService.importHotels(chunk, results.size()));
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            results.addAll(importChunk(chunk, results.size()));
+            results.add(new HotelImportResultDto(results.size(), ImportStatus.INVALID, null, MALFORMED_RECORD));
+            return summarize(results);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        results.addAll(importChunk(chunk, results.size()));
+        return summarize(results);
+    }
+
+    private List<HotelImportResultDto> importChunk(List<HotelCreateDto> chunk, int firstIndex) {
+        return chunk.isEmpty() ? List.of() : hotelService.importHotels(chunk, firstIndex);
+    }
+
+    private HotelImportDto summarize(List<HotelImportResultDto> results) {
+        int[] counts = new int[ImportStatus.values().length];
+        for (HotelImportResultDto result : results) {
+            counts[result.getStatus().ordinal()]++;
+        }
+        return new HotelImportDto(counts[ImportStatus.CREATED.ordinal()], counts[ImportStatus.DUPLICATE.ordinal()],
+                counts[ImportStatus.INVALID.ordinal()], results);
+    }
+}
@@ -1,144 +1,521 @@
 package com.tasks.hotelapp.service;
 
+import com.tasks.hotelapp.config.DatabaseConfig;
 import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
 import com.tasks.hotelapp.exception.HotelAlreadyExistsException;
 import com.tasks.hotelapp.exception.HotelNotFoundException;
 import com.tasks.hotelapp.exception.NotValidDataException;
+import com.tasks.hotelapp.index.AmenityIndex;
+import com.tasks.hotelapp.index.BitSets;
+import com.tasks.hotelapp.index.ColumnarCatalog;
+import com.tasks.hotelapp.index.FullTextIndex;
+import com.tasks.hotelapp.index.GeoIndex;
+import com.tasks.hotelapp.index.HotelHistogramIndex;
+import com.tasks.hotelapp.index.NameTrigramIndex;
 import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.AmenityMatch;
 import com.tasks.hotelapp.model.ArrivalTime;
 import com.tasks.hotelapp.model.Contacts;
+import com.tasks.hotelapp.model.HistogramParam;
+import com.tasks.hotelapp.model.ImportStatus;
+import com.tasks.hotelapp.model.dto.AmenityBatchDto;
+import com.tasks.hotelapp.model.dto.AmenityBatchResultDto;
+import com.tasks.hotelapp.model.dto.FacetedSearchDto;
 import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelCursorDto;
+import com.tasks.hotelapp.model.dto.HotelDetailsDto;
+import com.tasks.hotelapp.model.dto.HotelDistanceDto;
 import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.HotelImportResultDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.dto.HotelSliceDto;
+import com.tasks.hotelapp.model.dto.HotelTextMatchDto;
 import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import com.tasks.hotelapp.model.projection.HotelFacetRow;
+import com.tasks.hotelapp.model.projection.HotelNameAddress;
 import com.tasks.hotelapp.specification.HotelSpecification;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
+@Timed(value = HotelService.SERVICE_TIMER, histogram = true)
 public class HotelService {
+    public static final String SERVICE_TIMER = "hotelapp.service";
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final String HOTEL_CACHE = "hotels";
+    public static final int MAX_QUERY_LENGTH = 200;
+
     private static final String HOTEL_EXISTS = "Hotel with this name and address already exists";
     private static final String NOT_VALID_DATA = "Incorrect fields!";
     private static final String HOTEL_NOT_FOUND = "Hotel not found!";
     private static final String WRONG_PARAMETER= "Wrong parameter";
+    private static final String WRONG_PAGE_SIZE = "Page size must be between 1 and " + MAX_PAGE_SIZE;
+    private static final String AMENITIES_EXIST = "These amenities are already added";
+    private static final String WRONG_AMENITIES = "At least one amenity is required";
+    private static final String WRONG_AMENITY_BATCH = "Amenities and either hotel ids or a filter are required";
+    private static final String WRONG_LOCATION = "Latitude must be between -90 and 90, longitude between -180 and 180 " +
+            "and the radius positive";
+    private static final String WRONG_QUERY = "Query must be between 1 and " + MAX_QUERY_LENGTH + " characters";
+    private static final Sort BY_ID = Sort.by("id");
+    // Above this many matches an indexed filter runs as a database predicate instead of an id list
+    private static final int MAX_INDEXED_IDS = 1000;
+    // Keeps IN lists of the batch amenity statements within what every database accepts
+    private static final int MAX_IN_PARAMETERS = 1000;
 
     private final HotelsRepository hotelsRepository;
+    private final HotelHistogramIndex histogramIndex;
+    private final AmenityIndex amenityIndex;
+    private final NameTrigramIndex nameTrigramIndex;
+    private final GeoIndex geoIndex;
+    private final FullTextIndex fullTextIndex;
+    private final ColumnarCatalog columnarCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
+    // Not transactional, so the in-memory catalog is read without taking a connection; repository calls run in
+    // their own read-only transaction
     public List<HotelDto> getAllHotels() {
-        return convertToHotelDto(hotelsRepository.findAll());
+        if (columnarCatalog.isEnabled()) {
+            return columnarCatalog.findAll();
+        }
+        return hotelsRepository.findAllHotelDtos();
     }
 
-    public Hotel getHotelById(Long id) {
-        return hotelsRepository.findById(id)
-                .orElseThrow(() -> new HotelNotFoundException(HOTEL_NOT_FOUND));
+    // Synchronized, so the hotel is loaded inside the cache's compute and HotelCacheInvalidator's eviction cannot
+    // slip in between the load and the put
+    @Cacheable(cacheNames = HOTEL_CACHE, key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public HotelDetailsDto getHotelById(Long id) {
+        return HotelDetailsDto.of(findHotel(id));
+    }
+
+    @Transactional(readOnly = true)
+    public HotelSliceDto getHotelsPage(Pageable pageable) {
+        return getFilteredHotelsPage(new HotelSearchDto(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public HotelCursorDto getHotelsAfter(Long afterId, int limit) {
+        return getFilteredHotelsAfter(new HotelSearchDto(), afterId, limit);
+    }
+
+    public List<HotelDto> getFilteredHotels(HotelSearchDto search) {
+        if (columnarCatalog.isEnabled()) {
+            return columnarCatalog.find(search);
+        }
+        return hotelsRepository.findHotelDtos(buildSpecification(search), BY_ID, 0, 0);
+    }
+
+    @Transactional(readOnly = true)
+    public HotelSliceDto getFilteredHotelsPage(HotelSearchDto search, Pageable pageable) {
+        validatePageSize(pageable.getPageSize());
+        return findPage(buildSpecification(search), pageable);
     }
 
-    public List<HotelDto> getFilteredHotels(String name, String brand, String country, String city, List<String> amenities) {
-        Specification<Hotel> spec = Specification
-                .where(HotelSpecification.byName(name))
-                .and(HotelSpecification.byBrand(brand))
-                .and(HotelSpecification.byCity(city))
-                .and(HotelSpecification.byCountry(country))
-                .and(HotelSpecification.byAmenities(amenities));
+    // The page is one query; the facets are one narrow pass over the matching hotels for brand, city and country,
+    // with amenities counted by intersecting the matches with the amenity index. Without filters the facets are
+    // the histograms and need no query at all. With the memory engine the facets are counted in the columnar catalog
+    @Transactional(readOnly = true)
+    public FacetedSearchDto getFacetedHotels(HotelSearchDto search, Pageable pageable) {
+        validatePageSize(pageable.getPageSize());
+        Specification<Hotel> spec = buildSpecification(search);
+        HotelSliceDto hotels = findPage(spec, pageable);
+        Map<HistogramParam, Map<String, Integer>> facets = new EnumMap<>(HistogramParam.class);
+        if (isUnfiltered(search)) {
+            for (HistogramParam param : HistogramParam.values()) {
+                facets.put(param, histogramIndex.snapshot(param));
+            }
+            // Every hotel has a brand, so the brand counts add up to the catalog size
+            long total = facets.get(HistogramParam.BRAND).values().stream().mapToLong(Integer::longValue).sum();
+            return new FacetedSearchDto(hotels, total, facets);
+        }
+        if (columnarCatalog.isEnabled()) {
+            ColumnarCatalog.Facets counted = columnarCatalog.facets(search);
+            return new FacetedSearchDto(hotels, counted.total(), counted.counts());
+        }
+
+        Map<String, Integer> brands = new HashMap<>();
+        Map<String, Integer> cities = new HashMap<>();
+        Map<String, Integer> countries = new HashMap<>();
+        BitSet ids = new BitSet();
+        try (Stream<HotelFacetRow> rows = hotelsRepository.streamFacetRows(spec)) {
+            rows.forEach(row -> {
+                ids.set(Math.toIntExact(row.id()));
+                countFacet(brands, row.brand());
+                countFacet(cities, row.city());
+                countFacet(countries, row.country());
+            });
+        }
+        facets.put(HistogramParam.BRAND, brands);
+        facets.put(HistogramParam.CITY, cities);
+        facets.put(HistogramParam.COUNTRY, countries);
+        facets.put(HistogramParam.AMENITIES, amenityIndex.count(ids));
+        return new FacetedSearchDto(hotels, ids.cardinality(), facets);
+    }
+
+    @Transactional(readOnly = true)
+    public HotelCursorDto getFilteredHotelsAfter(HotelSearchDto search, Long afterId, int limit) {
+        validatePageSize(limit);
+        Specification<Hotel> spec = buildSpecification(search)
+                .and(HotelSpecification.byIdGreaterThan(afterId));
+        List<HotelDto> hotels = hotelsRepository.findHotelDtos(spec, BY_ID, 0, limit + 1);
+        if (hotels.size() <= limit) {
+            return new HotelCursorDto(hotels, null);
+        }
+        return new HotelCursorDto(hotels.subList(0, limit), hotels.get(limit - 1).getId());
+    }
 
-        return convertToHotelDto(hotelsRepository.findAll(spec));
+    // The index picks and orders the hotels, their details are read with one id lookup
+    @Transactional(readOnly = true)
+    public List<HotelDistanceDto> getNearbyHotels(double latitude, double longitude, Double radiusKm, int limit) {
+        validatePageSize(limit);
+        if (!isLocationValid(latitude, longitude) || (radiusKm != null && !(radiusKm > 0))) {
+            throw new NotValidDataException(WRONG_LOCATION);
+        }
+        List<GeoIndex.Neighbor> neighbors = geoIndex.nearest(latitude, longitude, radiusKm, limit);
+        if (neighbors.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, HotelDto> hotels = findHotelDtosByIds(neighbors.stream().map(GeoIndex.Neighbor::hotelId).toList());
+        List<HotelDistanceDto> result = new ArrayList<>(neighbors.size());
+        for (GeoIndex.Neighbor neighbor : neighbors) {
+            HotelDto hotel = hotels.get(neighbor.hotelId());
+            if (hotel != null) {
+                result.add(new HotelDistanceDto(hotel, neighbor.distanceKm()));
+            }
+        }
+        return result;
     }
 
+    // Best matches first, the index ranks them and the details are read with one id lookup
+    @Transactional(readOnly = true)
+    public List<HotelTextMatchDto> searchHotelsByText(String query, int limit) {
+        validatePageSize(limit);
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new NotValidDataException(WRONG_QUERY);
+        }
+        List<FullTextIndex.Hit> hits = fullTextIndex.search(query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, HotelDto> hotels = findHotelDtosByIds(hits.stream().map(FullTextIndex.Hit::hotelId).toList());
+        List<HotelTextMatchDto> result = new ArrayList<>(hits.size());
+        for (FullTextIndex.Hit hit : hits) {
+            HotelDto hotel = hotels.get(hit.hotelId());
+            if (hotel != null) {
+                result.add(new HotelTextMatchDto(hotel, hit.score(), hit.highlights()));
+            }
+        }
+        return result;
+    }
+
+    public void rebuildFullTextIndex() {
+        fullTextIndex.rebuildInBackground();
+    }
+
+    // Hotels are detached right after conversion, so the persistence context never holds more than one of them.
+    // The transaction lasts as long as the download and is limited separately from the other transactions
+    @Transactional(transactionManager = DatabaseConfig.EXPORT_TRANSACTION_MANAGER, readOnly = true)
+    public void exportHotels(Consumer<HotelDto> consumer) {
+        try (Stream<Hotel> hotels = hotelsRepository.streamAllBy()) {
+            hotels.forEach(hotel -> {
+                consumer.accept(convertToHotelDto(hotel));
+                entityManager.detach(hotel);
+            });
+        }
+    }
+
+    @Transactional
     public HotelDto createHotel(HotelCreateDto hotelCreateDto) {
         validateHotelCreation(hotelCreateDto);
         Hotel hotel = mapToHotelEntity(hotelCreateDto);
         hotelsRepository.save(hotel);
+        eventPublisher.publishEvent(new HotelCreatedEvent(hotel));
         return convertToHotelDto(hotel);
     }
 
+    // Duplicates are found with one name lookup for the whole chunk and compared by address in memory,
+    // records repeated inside the chunk count as duplicates too
+    @Transactional
+    public List<HotelImportResultDto> importHotels(List<HotelCreateDto> hotels, int firstIndex) {
+        Set<HotelKey> existing = findExistingKeys(hotels);
+        List<HotelImportResultDto> results = new ArrayList<>(hotels.size());
+        for (int i = 0; i < hotels.size(); i++) {
+            HotelCreateDto hotelCreateDto = hotels.get(i);
+            int index = firstIndex + i;
+            if (!validationHotelDTO(hotelCreateDto)) {
+                results.add(new HotelImportResultDto(index, ImportStatus.INVALID, null, NOT_VALID_DATA));
+            } else if (!existing.add(HotelKey.of(hotelCreateDto.getName(), hotelCreateDto.getAddress()))) {
+                results.add(new HotelImportResultDto(index, ImportStatus.DUPLICATE, null, HOTEL_EXISTS));
+            } else {
+                Hotel hotel = mapToHotelEntity(hotelCreateDto);
+                hotelsRepository.save(hotel);
+                eventPublisher.publishEvent(new HotelCreatedEvent(hotel));
+                results.add(new HotelImportResultDto(index, ImportStatus.CREATED, hotel.getId(), null));
+            }
+        }
+        return results;
+    }
+
+    // The checks a deferred write can fail without the write itself, so the outbox rejects it before queuing
+    public void validateHotel(HotelCreateDto hotelCreateDto) {
+        if (!validationHotelDTO(hotelCreateDto)) {
+            throw new NotValidDataException(NOT_VALID_DATA);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void validateAmenities(Long id, List<String> amenities) {
+        if (amenities == null || amenities.isEmpty() || !amenities.stream().allMatch(this::isNonEmpty)) {
+            throw new NotValidDataException(WRONG_AMENITIES);
+        }
+        if (!hotelsRepository.existsById(id)) {
+            throw new HotelNotFoundException(HOTEL_NOT_FOUND);
+        }
+    }
+
+    @Transactional
     public void addAmenities(Long id, List<String> amenities) {
-        Hotel hotel = getHotelById(id);
-        if (hotel.addToAmenities(amenities)) {
+        if (mergeAmenities(id, amenities).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, AMENITIES_EXIST);
+        }
+    }
+
+    // Adds whatever amenities the hotel lacks and returns them, amenities it already has are not an error
+    @Transactional
+    public List<String> mergeAmenities(Long id, Collection<String> amenities) {
+        Hotel hotel = findHotel(id);
+        List<String> added = hotel.addToAmenities(amenities);
+        if (!added.isEmpty()) {
             hotelsRepository.save(hotel);
-        } else {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "These amenities are already added");
+            eventPublisher.publishEvent(new AmenitiesAddedEvent(id, added));
         }
+        return added;
     }
 
-    public Map<String, Integer> getHistogram(String param) {
-        List<Hotel> hotels = hotelsRepository.findAll();
-        Map<String, Integer> histogram = new HashMap<>();
+    // Existing rows are read once per chunk of hotels to know what each hotel gains,
+    // the rows themselves are added by one insert ... select per amenity that skips existing ones
+    @Transactional
+    public AmenityBatchResultDto addAmenitiesToHotels(AmenityBatchDto batch) {
+        Set<String> amenities = validateAmenityBatch(batch);
+        List<Long> hotelIds = batch.getHotelIds() != null
+                ? findExistingHotelIds(batch.getHotelIds())
+                : hotelsRepository.findHotelIds(buildSpecification(batch.getFilter()));
 
-        for (Hotel hotel : hotels) {
-            processHotel(hotel, param, histogram);
+        int updatedHotels = 0;
+        int addedAmenities = 0;
+        for (int from = 0; from < hotelIds.size(); from += MAX_IN_PARAMETERS) {
+            List<Long> chunk = hotelIds.subList(from, Math.min(from + MAX_IN_PARAMETERS, hotelIds.size()));
+            Map<Long, Set<String>> existing = new HashMap<>();
+            for (HotelAmenity hotelAmenity : hotelsRepository.findHotelAmenitiesIn(chunk, amenities)) {
+                existing.computeIfAbsent(hotelAmenity.getHotelId(), id -> new HashSet<>()).add(hotelAmenity.getAmenity());
+            }
+            for (String amenity : amenities) {
+                addedAmenities += hotelsRepository.insertMissingAmenity(chunk, amenity);
+            }
+            Map<Long, List<String>> addedByHotel = new HashMap<>();
+            for (Long hotelId : chunk) {
+                List<String> added = amenities.stream()
+                        .filter(amenity -> !existing.getOrDefault(hotelId, Set.of()).contains(amenity))
+                        .toList();
+                if (!added.isEmpty()) {
+                    addedByHotel.put(hotelId, added);
+                }
+            }
+            if (!addedByHotel.isEmpty()) {
+                // The native inserts bypass Hibernate, so the versions are bumped explicitly
+                hotelsRepository.incrementVersions(addedByHotel.keySet());
+                addedByHotel.forEach((hotelId, added) ->
+                        eventPublisher.publishEvent(new AmenitiesAddedEvent(hotelId, added)));
+                updatedHotels += addedByHotel.size();
+            }
         }
+        return new AmenityBatchResultDto(hotelIds.size(), updatedHotels, addedAmenities);
+    }
 
-        return histogram;
+    public Map<String, Integer> getHistogram(String param) {
+        HistogramParam histogramParam = resolveHistogramParam(param);
+        if (columnarCatalog.isEnabled()) {
+            return columnarCatalog.histogram(histogramParam);
+        }
+        return histogramIndex.snapshot(histogramParam);
     }
 
-    private List<HotelDto> convertToHotelDto(List<Hotel> hotels) {
-        return hotels.stream()
-                .map(this::convertToHotelDto)
-                .collect(Collectors.toList());
+    public Map<HistogramParam, Boolean> checkHistogramConsistency() {
+        return histogramIndex.checkConsistency();
     }
 
-    private HotelDto convertToHotelDto(Hotel hotel) {
-        String address = String.format("%d %s, %s, %s, %s",
-                hotel.getAddress().getHouseNumber(),
-                hotel.getAddress().getStreet(),
-                hotel.getAddress().getCity(),
-                hotel.getAddress().getPostCode(),
-                hotel.getAddress().getCountry());
+    public void rebuildHistogram() {
+        histogramIndex.rebuild();
+        columnarCatalog.rebuild();
+    }
 
+    static HotelDto convertToHotelDto(Hotel hotel) {
         return new HotelDto(
                 hotel.getId(),
                 hotel.getName(),
                 hotel.getDescription(),
-                address,
+                hotel.getAddressLine(),
                 hotel.getContacts().getPhone());
     }
 
-    private void processHotel(Hotel hotel, String param, Map<String, Integer> histogram) {
-        String key;
+    private Hotel findHotel(Long id) {
+        return hotelsRepository.findWithAmenitiesById(id)
+                .orElseThrow(() -> new HotelNotFoundException(HOTEL_NOT_FOUND));
+    }
+
+    // Pages are fetched with size + 1 rows, the extra row only tells whether another page exists
+    private HotelSliceDto findPage(Specification<Hotel> spec, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<HotelDto> hotels = hotelsRepository.findHotelDtos(spec, pageable.getSort(), pageable.getOffset(), size + 1);
+        boolean hasNext = hotels.size() > size;
+        return new HotelSliceDto(hasNext ? hotels.subList(0, size) : hotels, pageable.getPageNumber(), size, hasNext);
+    }
+
+    private static boolean isUnfiltered(HotelSearchDto search) {
+        return search.getName() == null && search.getBrand() == null && search.getCity() == null
+                && search.getCountry() == null && (search.getAmenities() == null || search.getAmenities().isEmpty());
+    }
+
+    private static void countFacet(Map<String, Integer> counts, String value) {
+        if (value != null) {
+            counts.merge(value, 1, Integer::sum);
+        }
+    }
+
+    private Specification<Hotel> buildSpecification(HotelSearchDto search) {
+        return Specification
+                .where(buildNameSpecification(search.getName()))
+                .and(HotelSpecification.byBrand(search.getBrand()))
+                .and(HotelSpecification.byCity(search.getCity()))
+                .and(HotelSpecification.byCountry(search.getCountry()))
+                .and(buildAmenitySpecification(search.getAmenities(), search.getAmenityMatch()));
+    }
+
+    private Specification<Hotel> buildNameSpecification(String name) {
+        if (name == null) {
+            return HotelSpecification.byName(null);
+        }
+        BitSet ids = nameTrigramIndex.search(name);
+        if (ids != null && ids.cardinality() <= MAX_INDEXED_IDS) {
+            return HotelSpecification.byIds(BitSets.toIds(ids));
+        }
+        return HotelSpecification.byName(name);
+    }
+
+    private Specification<Hotel> buildAmenitySpecification(List<String> amenities, AmenityMatch match) {
+        if (amenities == null || amenities.isEmpty()) {
+            return HotelSpecification.byAmenities(amenities, match);
+        }
+        BitSet ids = amenityIndex.match(amenities, match);
+        if (ids != null && ids.cardinality() <= MAX_INDEXED_IDS) {
+            return HotelSpecification.byIds(BitSets.toIds(ids));
+        }
+        return HotelSpecification.byAmenities(amenities, match);
+    }
+
+    private Set<String> validateAmenityBatch(AmenityBatchDto batch) {
+        if (batch.getAmenities() == null || batch.getAmenities().isEmpty()
+                || !batch.getAmenities().stream().allMatch(this::isNonEmpty)
+                || (batch.getHotelIds() == null) == (batch.getFilter() == null)
+                || (batch.getFilter() != null && isEmptyFilter(batch.getFilter()))) {
+            throw new NotValidDataException(WRONG_AMENITY_BATCH);
+        }
+        return new LinkedHashSet<>(batch.getAmenities());
+    }
+
+    // An empty filter matches every hotel, a batch has to name its targets
+    private boolean isEmptyFilter(HotelSearchDto filter) {
+        return !isNonEmpty(filter.getName()) && !isNonEmpty(filter.getBrand()) && !isNonEmpty(filter.getCity())
+                && !isNonEmpty(filter.getCountry()) && (filter.getAmenities() == null || filter.getAmenities().isEmpty());
+    }
 
-        switch (param.toLowerCase()) {
-            case "brand":
-                key = hotel.getBrand();
-                break;
-            case "city":
-                key = hotel.getAddress().getCity();
-                break;
-            case "country":
-                key = hotel.getAddress().getCountry();
-                break;
-            case "amenities":
-                processAmenities(hotel.getAmenities(), histogram);
-                return;
-            default:
-                throw new NotValidDataException(WRONG_PARAMETER);
+    // The requested ids are checked in chunks as well, one IN list per MAX_IN_PARAMETERS ids
+    private List<Long> findExistingHotelIds(List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        List<Long> existing = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += MAX_IN_PARAMETERS) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + MAX_IN_PARAMETERS, distinct.size()));
+            existing.addAll(hotelsRepository.findHotelIds(HotelSpecification.byIds(chunk)));
         }
+        return existing;
+    }
 
-        updateHistogram(histogram, key);
+    private Map<Long, HotelDto> findHotelDtosByIds(List<Long> ids) {
+        Map<Long, HotelDto> hotels = new HashMap<>();
+        for (HotelDto hotel : hotelsRepository.findHotelDtos(HotelSpecification.byIds(ids), BY_ID, 0, 0)) {
+            hotels.put(hotel.getId(), hotel);
+        }
+        return hotels;
     }
 
-    private void processAmenities(List<String> amenities, Map<String, Integer> histogram) {
-        amenities.forEach(amenity -> updateHistogram(histogram, amenity));
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new NotValidDataException(WRONG_PAGE_SIZE);
+        }
     }
 
-    private void updateHistogram(Map<String, Integer> histogram, String key) {
-        histogram.put(key, histogram.getOrDefault(key, 0) + 1);
+    private HistogramParam resolveHistogramParam(String param) {
+        return switch (param.toLowerCase()) {
+            case "brand" -> HistogramParam.BRAND;
+            case "city" -> HistogramParam.CITY;
+            case "country" -> HistogramParam.COUNTRY;
+            case "amenities" -> HistogramParam.AMENITIES;
+            default -> throw new NotValidDataException(WRONG_PARAMETER);
+        };
     }
 
     private void validateHotelCreation(HotelCreateDto hotelCreateDto) {
         if (hotelsRepository.existsHotelByAddressAndName(hotelCreateDto.getAddress(), hotelCreateDto.getName())) {
             throw new HotelAlreadyExistsException(HOTEL_EXISTS);
         }
-        if (!validationHotelDTO(hotelCreateDto)) {
-            throw new NotValidDataException(NOT_VALID_DATA);
+        validateHotel(hotelCreateDto);
+    }
+
+    private Set<HotelKey> findExistingKeys(List<HotelCreateDto> hotels) {
+        Set<String> names = new HashSet<>();
+        for (HotelCreateDto hotelCreateDto : hotels) {
+            if (validationHotelDTO(hotelCreateDto)) {
+                names.add(hotelCreateDto.getName());
+            }
+        }
+        Set<HotelKey> keys = new HashSet<>();
+        if (!names.isEmpty()) {
+            for (HotelNameAddress hotel : hotelsRepository.findNameAddressesByNameIn(names)) {
+                if (hotel.getAddress() != null) {
+                    keys.add(HotelKey.of(hotel.getName(), hotel.getAddress()));
+                }
+            }
         }
+        return keys;
     }
 
     private Hotel mapToHotelEntity(HotelCreateDto hotelCreateDto) {
@@ -175,7 +552,20 @@ public class HotelService {
                 isNonEmpty(address.getStreet()) &&
                 isNonEmpty(address.getCity()) &&
                 isNonEmpty(address.getCountry()) &&
-                isNonEmpty(address.getPostCode());
+                isNonEmpty(address.getPostCode()) &&
+                isCoordinatesValid(address.getLatitude(), address.getLongitude());
+    }
+
+    // Coordinates are optional but come in pairs
+    private boolean isCoordinatesValid(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return latitude == null && longitude == null;
+        }
+        return isLocationValid(latitude, longitude);
+    }
+
+    private boolean isLocationValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
     }
 
     private boolean isContactsValid(Contacts contacts) {
@@ -191,4 +581,12 @@ public class HotelService {
     private boolean isNonEmpty(String str) {
         return str != null && !str.isEmpty();
     }
+
+    // Same fields existsHotelByAddressAndName compares
+    private record HotelKey(String name, int houseNumber, String street, String city, String country, String postCode) {
+        static HotelKey of(String name, Address address) {
+            return new HotelKey(name, address.getHouseNumber(), address.getStreet(), address.getCity(),
+                    address.getCountry(), address.getPostCode());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.tasks.hotelapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.event.TransactionCallbacks;
+import com.tasks.hotelapp.model.dto.CachedJsonDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.entity.Hotel;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+//Serialized and gzipped list responses, so repeated identical requests skip the query and Jackson.
+//Keys carry the catalog version, an entry built while a write commits can never be served after it
+@Component
+public class JsonResponseCache {
+    public static final String RESPONSE_CACHE = "responses";
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final Cache<Object, Object> cache;
+    // Bound to a transaction once its invalidation is scheduled
+    private final Object invalidationPending = new Object();
+
+    private record Key(Object request, long catalogVersion) {
+    }
+
+    // The native cache is used so exceptions from the loader reach the caller unwrapped
+    @SuppressWarnings("unchecked")
+    public JsonResponseCache(ObjectMapper objectMapper, CatalogVersion catalogVersion, CacheManager cacheManager) {
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.cache = (Cache<Object, Object>) cacheManager.getCache(RESPONSE_CACHE).getNativeCache();
+    }
+
+    // Concurrent misses for the same key wait for a single load
+    public CachedJsonDto get(Object request, Supplier<? extends List<?>> loader) {
+        return (CachedJsonDto) cache.get(new Key(request, catalogVersion.getVersion()), key -> serialize(loader.get()));
+    }
+
+    // Filters that select the same hotels map to the same key: text filters are case-insensitive
+    // and amenity order and repetition do not matter
+    public static List<Object> searchKey(HotelSearchDto search) {
+        List<String> amenities = search.getAmenities() == null ? List.of()
+                : search.getAmenities().stream().distinct().sorted().toList();
+        return Arrays.asList("search",
+                Hotel.normalize(search.getName()),
+                Hotel.normalize(search.getBrand()),
+                search.getCity(),
+                Hotel.normalize(search.getCountry()),
+                amenities,
+                amenities.isEmpty() ? null : search.getAmenityMatch());
+    }
+
+    // Entries of older versions are never read again; clearing them once per transaction frees their memory
+    // instead of leaving it to the size limit, a bulk import does not clear the cache once per hotel
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelCreated(HotelCreatedEvent event) {
+        invalidateAfterTransaction();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAmenitiesAdded(AmenitiesAddedEvent event) {
+        invalidateAfterTransaction();
+    }
+
+    private void invalidateAfterTransaction() {
+        TransactionCallbacks.runOnceAfterTransaction(invalidationPending, Ordered.LOWEST_PRECEDENCE, cache::invalidateAll);
+    }
+
+    private CachedJsonDto serialize(List<?> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            return new CachedJsonDto(json, gzip.toByteArray(), items.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
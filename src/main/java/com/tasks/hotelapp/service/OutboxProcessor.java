@@ -0,0 +1,72 @@
+package com.tasks.hotelapp.service;
+
+import com.tasks.hotelapp.exception.DatabaseBusyException;
+import com.tasks.hotelapp.model.OutboxType;
+import com.tasks.hotelapp.model.entity.OutboxEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Applies pending outbox entries in id order: hotel creations one by one, amenity updates grouped per hotel.
+// An entry that cannot be applied is marked FAILED, a busy database leaves the rest pending for the next poll
+@Component
+@ConditionalOnProperty(name = "hotelapp.outbox.enabled", havingValue = "true")
+public class OutboxProcessor {
+    private final OutboxService outboxService;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxProcessor(OutboxService outboxService,
+                           @Value("${hotelapp.outbox.batch-size}") int batchSize,
+                           @Value("${hotelapp.outbox.retention}") Duration retention) {
+        this.outboxService = outboxService;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${hotelapp.outbox.poll-interval}")
+    public void processPending() {
+        List<OutboxEntry> batch = outboxService.findPending(batchSize);
+        Map<Long, List<OutboxEntry>> amenityUpdates = new LinkedHashMap<>();
+        for (OutboxEntry entry : batch) {
+            if (entry.getType() == OutboxType.CREATE_HOTEL) {
+                if (!apply(List.of(entry), () -> outboxService.applyHotel(entry))) {
+                    return;
+                }
+            } else {
+                amenityUpdates.computeIfAbsent(entry.getHotelId(), hotelId -> new ArrayList<>()).add(entry);
+            }
+        }
+        for (Map.Entry<Long, List<OutboxEntry>> update : amenityUpdates.entrySet()) {
+            if (!apply(update.getValue(), () -> outboxService.applyAmenities(update.getKey(), update.getValue()))) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hotelapp.outbox.cleanup-interval}")
+    public void deleteProcessed() {
+        outboxService.deleteProcessedBefore(Instant.now().minus(retention));
+    }
+
+    private boolean apply(List<OutboxEntry> entries, Runnable action) {
+        try {
+            action.run();
+            return true;
+        } catch (DatabaseBusyException | TransientDataAccessException e) {
+            return false;
+        } catch (RuntimeException e) {
+            outboxService.fail(entries, e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.tasks.hotelapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasks.hotelapp.dao.OutboxRepository;
+import com.tasks.hotelapp.exception.OutboxEntryNotFoundException;
+import com.tasks.hotelapp.model.OutboxStatus;
+import com.tasks.hotelapp.model.OutboxType;
+import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.OutboxEntryDto;
+import com.tasks.hotelapp.model.entity.OutboxEntry;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Writes are validated and stored as outbox entries on the request thread and applied later by OutboxProcessor,
+// each entry is marked processed in the same transaction that applies it
+@Service
+@Timed(value = HotelService.SERVICE_TIMER, histogram = true)
+public class OutboxService {
+    private static final String ENTRY_NOT_FOUND = "Outbox entry not found!";
+    private static final TypeReference<List<String>> AMENITIES = new TypeReference<>() {
+    };
+
+    private final OutboxRepository outboxRepository;
+    private final HotelService hotelService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OutboxService(OutboxRepository outboxRepository, HotelService hotelService, ObjectMapper objectMapper,
+                         @Value("${hotelapp.outbox.enabled}") boolean enabled) {
+        this.outboxRepository = outboxRepository;
+        this.hotelService = hotelService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Transactional
+    public OutboxEntryDto enqueueHotel(HotelCreateDto hotel) {
+        hotelService.validateHotel(hotel);
+        return enqueue(OutboxType.CREATE_HOTEL, null, hotel);
+    }
+
+    @Transactional
+    public OutboxEntryDto enqueueAmenities(Long hotelId, List<String> amenities) {
+        hotelService.validateAmenities(hotelId, amenities);
+        return enqueue(OutboxType.ADD_AMENITIES, hotelId, amenities);
+    }
+
+    @Transactional(readOnly = true)
+    public OutboxEntryDto getEntry(Long id) {
+        return outboxRepository.findById(id)
+                .map(this::convertToOutboxEntryDto)
+                .orElseThrow(() -> new OutboxEntryNotFoundException(ENTRY_NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OutboxEntry> findPending(int limit) {
+        return outboxRepository.findByStatusOrderById(OutboxStatus.PENDING, Limit.of(limit));
+    }
+
+    @Transactional
+    public void applyHotel(OutboxEntry entry) {
+        HotelDto hotel = hotelService.createHotel(readPayload(entry.getPayload(), HotelCreateDto.class));
+        outboxRepository.markProcessed(List.of(entry.getId()), OutboxStatus.COMPLETED, hotel.getId(), null, Instant.now());
+    }
+
+    // All pending updates of one hotel are merged, so the hotel is loaded, saved and versioned once
+    @Transactional
+    public void applyAmenities(Long hotelId, List<OutboxEntry> entries) {
+        Set<String> amenities = new LinkedHashSet<>();
+        for (OutboxEntry entry : entries) {
+            amenities.addAll(readPayload(entry.getPayload(), AMENITIES));
+        }
+        hotelService.mergeAmenities(hotelId, amenities);
+        outboxRepository.markProcessed(ids(entries), OutboxStatus.COMPLETED, null, null, Instant.now());
+    }
+
+    @Transactional
+    public void fail(Collection<OutboxEntry> entries, String error) {
+        String message = error != null && error.length() > OutboxEntry.MAX_ERROR_LENGTH
+                ? error.substring(0, OutboxEntry.MAX_ERROR_LENGTH) : error;
+        outboxRepository.markProcessed(ids(entries), OutboxStatus.FAILED, null, message, Instant.now());
+    }
+
+    @Transactional
+    public int deleteProcessedBefore(Instant before) {
+        return outboxRepository.deleteProcessedBefore(before);
+    }
+
+    private OutboxEntryDto enqueue(OutboxType type, Long hotelId, Object payload) {
+        OutboxEntry entry = OutboxEntry.builder()
+                .type(type)
+                .status(OutboxStatus.PENDING)
+                .hotelId(hotelId)
+                .payload(writePayload(payload))
+                .createdAt(Instant.now())
+                .build();
+        return convertToOutboxEntryDto(outboxRepository.save(entry));
+    }
+
+    private OutboxEntryDto convertToOutboxEntryDto(OutboxEntry entry) {
+        return new OutboxEntryDto(
+                entry.getId(),
+                entry.getType(),
+                entry.getStatus(),
+                entry.getHotelId(),
+                entry.getError(),
+                entry.getCreatedAt(),
+                entry.getProcessedAt());
+    }
+
+    private String writePayload(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T readPayload(String payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T readPayload(String payload, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Long> ids(Collection<OutboxEntry> entries) {
+        return entries.stream().map(OutboxEntry::getId).toList();
+    }
+}
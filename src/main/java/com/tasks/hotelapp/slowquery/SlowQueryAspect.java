@@ -0,0 +1,95 @@
+package com.tasks.hotelapp.slowquery;
+
+import com.tasks.hotelapp.model.dto.SlowQueryDto;
+import com.tasks.hotelapp.model.dto.SlowStatementDto;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+
+//Times every HotelsRepository call and logs the ones above the threshold with their SQL, bind parameters and plan
+@Aspect
+@AllArgsConstructor
+public class SlowQueryAspect {
+    private final StatementCapture statementCapture;
+    private final SlowQueryLog slowQueryLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration threshold;
+
+    @Around("this(com.tasks.hotelapp.dao.HotelsRepository)")
+    public Object recordSlowQueries(ProceedingJoinPoint joinPoint) throws Throwable {
+        statementCapture.open();
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            List<StatementCapture.CapturedStatement> statements = statementCapture.close();
+            if (statements != null && elapsed >= threshold.toNanos()) {
+                slowQueryLog.add(new SlowQueryDto(Instant.now(), joinPoint.getSignature().toShortString(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), rowCount(result), explain(statements)));
+            }
+        }
+    }
+
+    // Runs after the statements, on the same connection when a transaction is still open
+    private List<SlowStatementDto> explain(List<StatementCapture.CapturedStatement> statements) {
+        List<SlowStatementDto> explained = new ArrayList<>(statements.size());
+        for (StatementCapture.CapturedStatement statement : statements) {
+            List<String> parameters = statement.parameters().stream().map(String::valueOf).toList();
+            explained.add(new SlowStatementDto(statement.sql(), parameters, statement.elapsedMillis(), plan(statement)));
+        }
+        return explained;
+    }
+
+    private String plan(StatementCapture.CapturedStatement statement) {
+        if (!statement.sql().stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+            return null;
+        }
+        try {
+            return jdbcTemplate.query("EXPLAIN " + statement.sql(),
+                            (rs, rowNum) -> rs.getString(1), statement.parameters().toArray())
+                    .stream().collect(Collectors.joining("\n"));
+        } catch (DataAccessException e) {
+            return "EXPLAIN failed: " + e.getMostSpecificCause().getMessage();
+        }
+    }
+
+    private static Integer rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof BaseStream<?, ?>) {
+            return null;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer updated) {
+            return updated;
+        }
+        return 1;
+    }
+}
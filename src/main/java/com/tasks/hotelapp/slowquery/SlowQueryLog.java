@@ -0,0 +1,46 @@
+package com.tasks.hotelapp.slowquery;
+
+import com.tasks.hotelapp.model.dto.SlowQueryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+//Keeps the last N slow queries, the oldest entry is dropped when the buffer is full
+@Component
+public class SlowQueryLog {
+    private static final String WRONG_CAPACITY = "hotelapp.slow-query.buffer-size must be greater than 0";
+
+    private final int capacity;
+    private final Deque<SlowQueryDto> entries;
+
+    public SlowQueryLog(@Value("${hotelapp.slow-query.buffer-size}") int capacity) {
+        // A buffer of 0 would never reach its size and so never drop an entry
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(WRONG_CAPACITY);
+        }
+        this.capacity = capacity;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+
+    public synchronized void add(SlowQueryDto entry) {
+        if (entries.size() == capacity) {
+            entries.pollFirst();
+        }
+        entries.addLast(entry);
+    }
+
+    // Newest first
+    public synchronized List<SlowQueryDto> getEntries() {
+        List<SlowQueryDto> snapshot = new ArrayList<>(entries.size());
+        entries.descendingIterator().forEachRemaining(snapshot::add);
+        return snapshot;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
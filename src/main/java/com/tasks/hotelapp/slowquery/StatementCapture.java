@@ -0,0 +1,69 @@
+package com.tasks.hotelapp.slowquery;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+//Collects the statements the current thread executes while a capture is open, nested captures share the outer one
+public class StatementCapture implements QueryExecutionListener {
+    private final ThreadLocal<Capture> current = new ThreadLocal<>();
+
+    public record CapturedStatement(String sql, List<Object> parameters, long elapsedMillis) {
+    }
+
+    private static class Capture {
+        private final List<CapturedStatement> statements = new ArrayList<>();
+        private int depth;
+    }
+
+    public void open() {
+        Capture capture = current.get();
+        if (capture == null) {
+            capture = new Capture();
+            current.set(capture);
+        }
+        capture.depth++;
+    }
+
+    // Returns the statements when the outermost capture closes, null for nested ones
+    public List<CapturedStatement> close() {
+        Capture capture = current.get();
+        if (--capture.depth > 0) {
+            return null;
+        }
+        current.remove();
+        return capture.statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Capture capture = current.get();
+        if (capture == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+            List<Object> parameters = parametersList.isEmpty() ? List.of() : toValues(parametersList.get(0));
+            capture.statements.add(new CapturedStatement(queryInfo.getQuery(), parameters, execInfo.getElapsedTime()));
+        }
+    }
+
+    private static List<Object> toValues(List<ParameterSetOperation> operations) {
+        List<ParameterSetOperation> sorted = new ArrayList<>(operations);
+        sorted.sort(Comparator.comparingInt(operation -> operation.getArgs()[0] instanceof Integer index ? index : 0));
+        List<Object> values = new ArrayList<>(sorted.size());
+        for (ParameterSetOperation operation : sorted) {
+            values.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1]);
+        }
+        return values;
+    }
+}
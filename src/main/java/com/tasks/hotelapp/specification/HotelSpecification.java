@@ -1,45 +1,78 @@
 package com.tasks.hotelapp.specification;
 
+import com.tasks.hotelapp.model.AmenityMatch;
 import com.tasks.hotelapp.model.entity.Hotel;
 import lombok.NoArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 //Specification for JPA filtering
 @NoArgsConstructor
 public class HotelSpecification {
+    private static final char ESCAPE = '\\';
 
+    // Substring match, used for names too short for the trigram index or with too many trigram matches
     public static Specification<Hotel> byName(String name) {
         return (root, query, cb) ->
-                name == null ? cb.conjunction() : cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+                name == null ? cb.conjunction() : cb.like(root.get("nameNormalized"), "%" + escapeLike(Hotel.normalize(name)) + "%", ESCAPE);
     }
 
+    // Prefix match on the indexed lowercase column
     public static Specification<Hotel> byBrand(String brand) {
         return (root, query, cb) ->
-                brand == null ? cb.conjunction() : cb.like(cb.lower(root.get("brand")), "%" + brand.toLowerCase() + "%");
+                brand == null ? cb.conjunction() : cb.like(root.get("brandNormalized"), escapeLike(Hotel.normalize(brand)) + "%", ESCAPE);
     }
 
     public static Specification<Hotel> byCity(String city) {
         return (root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("address").get("city"), city); // Путь через address
+                city == null ? criteriaBuilder.conjunction() : criteriaBuilder.equal(root.get("address").get("city"), city); // Путь через address
     }
 
+    // Prefix match on the indexed lowercase column
     public static Specification<Hotel> byCountry(String country) {
         return (root, query, cb) ->
-                country == null ? cb.conjunction() : cb.like(cb.lower(root.get("address").get("country")), "%" + country.toLowerCase() + "%");
+                country == null ? cb.conjunction() : cb.like(root.get("countryNormalized"), escapeLike(Hotel.normalize(country)) + "%", ESCAPE);
     }
 
     public static Specification<Hotel> byAmenities(List<String> amenities) {
+        return byAmenities(amenities, AmenityMatch.ANY);
+    }
+
+    // Filters through an id subquery instead of joining, so a hotel matching several amenities is returned once
+    public static Specification<Hotel> byAmenities(List<String> amenities, AmenityMatch match) {
         return (root, query, cb) -> {
             if (amenities == null || amenities.isEmpty()) {
                 return cb.conjunction();
             }
-            Join<Hotel, String> amenitiesJoin = root.join("amenities"); // Делаем JOIN с таблицей удобств
-            return amenitiesJoin.in(amenities); // WHERE amenities IN (...)
+            Subquery<Long> matchingIds = query.subquery(Long.class);
+            Root<Hotel> hotel = matchingIds.from(Hotel.class);
+            Join<Hotel, String> amenitiesJoin = hotel.join("amenities");
+            matchingIds.select(hotel.get("id")).where(amenitiesJoin.in(amenities));
+            if (match == AmenityMatch.ALL) {
+                matchingIds.groupBy(hotel.get("id"))
+                        .having(cb.equal(cb.countDistinct(amenitiesJoin), new HashSet<>(amenities).size()));
+            }
+            return root.get("id").in(matchingIds);
         };
     }
 
-}
+    public static Specification<Hotel> byIds(Collection<Long> ids) {
+        return (root, query, cb) ->
+                ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
 
+    public static Specification<Hotel> byIdGreaterThan(Long afterId) {
+        return (root, query, cb) ->
+                afterId == null ? cb.conjunction() : cb.greaterThan(root.get("id"), afterId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
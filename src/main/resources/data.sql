@@ -1,12 +1,12 @@
-INSERT INTO hotels (name, description, brand, house_number, street, city, country, post_code, phone, email, check_in, check_out)
+INSERT INTO hotels (id, version, name, description, brand, house_number, street, city, country, post_code, phone, email, check_in, check_out, latitude, longitude)
 VALUES
-    ('DoubleTree by Hilton Minsk', 'A luxurious hotel in Minsk with stunning views.', 'Hilton', 9, 'Pobediteley Avenue', 'Minsk', 'Belarus', '220004', '+375 17 309-80-00', 'info@hiltonminsk.com', '14:00', '12:00'),
+    (1, 0, 'DoubleTree by Hilton Minsk', 'A luxurious hotel in Minsk with stunning views.', 'Hilton', 9, 'Pobediteley Avenue', 'Minsk', 'Belarus', '220004', '+375 17 309-80-00', 'info@hiltonminsk.com', '14:00', '12:00', 53.9086, 27.5460),
 
-    ('Marriott Moscow', '5-star luxury hotel near Red Square.', 'Marriott', 4, 'Tverskaya Street', 'Moscow', 'Russia', '125009', '+7 495 937-00-00', 'contact@marriott-moscow.com', '15:00', '11:00'),
+    (2, 0, 'Marriott Moscow', '5-star luxury hotel near Red Square.', 'Marriott', 4, 'Tverskaya Street', 'Moscow', 'Russia', '125009', '+7 495 937-00-00', 'contact@marriott-moscow.com', '15:00', '11:00', 55.7579, 37.6136),
 
-    ('The Ritz-Carlton Berlin', 'A prestigious hotel with top-class amenities.', 'Ritz-Carlton', 3, 'Potsdamer Platz', 'Berlin', 'Germany', '10785', '+49 30 337777', 'berlin@ritzcarlton.com', '13:00', '12:00'),
+    (3, 0, 'The Ritz-Carlton Berlin', 'A prestigious hotel with top-class amenities.', 'Ritz-Carlton', 3, 'Potsdamer Platz', 'Berlin', 'Germany', '10785', '+49 30 337777', 'berlin@ritzcarlton.com', '13:00', '12:00', 52.5098, 13.3762),
 
-    ('Shangri-La Paris', 'A palace hotel with an exclusive view of the Eiffel Tower.', 'Shangri-La', 10, 'Avenue dIéna', 'Paris', 'France', '75116', '+33 1 5367-1999', 'paris@shangri-la.com', '16:00', '12:00');
+    (4, 0, 'Shangri-La Paris', 'A palace hotel with an exclusive view of the Eiffel Tower.', 'Shangri-La', 10, 'Avenue dIéna', 'Paris', 'France', '75116', '+33 1 5367-1999', 'paris@shangri-la.com', '16:00', '12:00', 48.8635, 2.2933);
 
 
 INSERT INTO hotel_amenities (hotel_id, amenity) VALUES
@@ -14,3 +14,9 @@ INSERT INTO hotel_amenities (hotel_id, amenity) VALUES
 (2, 'Swimming Pool'), (2, 'Free Parking'), (2, 'Business Center'), (2, 'Bar'),
 (3, 'Pet Friendly'), (3, 'Rooftop Bar'), (3, 'Concierge Service'), (3, 'Sauna'),
 (4, 'Gourmet Restaurant'), (4, 'Valet Parking'), (4, 'Luxury Spa'), (4, 'Conference Rooms');
+
+
+UPDATE hotels SET name_lc = LOWER(name), brand_lc = LOWER(brand), country_lc = LOWER(country),
+    address_line = house_number || ' ' || street || ', ' || city || ', ' || post_code || ', ' || country;
+
+ALTER SEQUENCE hotels_seq RESTART WITH 5;
@@ -0,0 +1,38 @@
+package com.tasks.hotelapp.config;
+
+import com.tasks.hotelapp.exception.DatabaseBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    void acquire_ShouldThrowDatabaseBusyException_WhenNoPermitFreesUpInTime() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Duration.ofMillis(50));
+        limiter.acquire();
+
+        assertThrows(DatabaseBusyException.class, limiter::acquire);
+        assertEquals(0, limiter.getAvailable());
+    }
+
+    @Test
+    void acquire_ShouldWaitForReleasedPermit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Duration.ofSeconds(5));
+        limiter.acquire();
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(limiter::acquire);
+        while (limiter.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+        limiter.release();
+
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(0, limiter.getAvailable());
+    }
+}
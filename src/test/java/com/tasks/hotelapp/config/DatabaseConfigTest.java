@@ -0,0 +1,52 @@
+package com.tasks.hotelapp.config;
+
+import com.tasks.hotelapp.service.HotelService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DatabaseConfigTest {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private ConcurrencyLimiter databaseConcurrencyLimiter;
+
+    @Autowired
+    private ConcurrencyLimiter exportConcurrencyLimiter;
+
+    @Value("${hotelapp.db.max-concurrent-transactions}")
+    private int maxConcurrentTransactions;
+
+    @Value("${hotelapp.db.max-concurrent-exports}")
+    private int maxConcurrentExports;
+
+    @Test
+    void exportHotels_ShouldTakeExportPermitOnly() {
+        // Arrange
+        List<int[]> available = new ArrayList<>();
+
+        // Act
+        hotelService.exportHotels(hotel -> available.add(new int[]{
+                databaseConcurrencyLimiter.getAvailable(), exportConcurrencyLimiter.getAvailable()}));
+
+        // Assert
+        assertFalse(available.isEmpty());
+        available.forEach(permits -> {
+            assertEquals(maxConcurrentTransactions, permits[0]);
+            assertEquals(maxConcurrentExports - 1, permits[1]);
+        });
+        assertEquals(maxConcurrentExports, exportConcurrencyLimiter.getAvailable());
+    }
+}
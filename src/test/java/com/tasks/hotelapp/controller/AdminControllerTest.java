@@ -0,0 +1,55 @@
+package com.tasks.hotelapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"hotelapp.slow-query.enabled=true", "hotelapp.slow-query.threshold=0ms"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getSlowQueries_ShouldReturnSqlParametersAndPlanOfSearch() throws Exception {
+        mockMvc.perform(delete("/property-view/admin/slow-queries"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/property-view/search").param("brand", "hil"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/property-view/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].repositoryMethod").value(containsString("findHotelDtos")))
+                .andExpect(jsonPath("$[0].rowCount").value(1))
+                .andExpect(jsonPath("$[0].statements[0].sql").value(containsString("brand_lc like ?")))
+                .andExpect(jsonPath("$[0].statements[0].parameters").value(hasItem("hil%")))
+                .andExpect(jsonPath("$[0].statements[0].plan").value(containsString("IDX_HOTELS_BRAND_LC")));
+    }
+
+    @Test
+    void histogramEndpoints_ShouldBeServedUnderAdmin() throws Exception {
+        mockMvc.perform(post("/property-view/admin/histogram/rebuild"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/property-view/admin/histogram/consistency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.BRAND").value(true))
+                .andExpect(jsonPath("$.AMENITIES").value(true));
+        mockMvc.perform(post("/property-view/histogram/rebuild"))
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,94 @@
+package com.tasks.hotelapp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ChangeStreamTest {
+    private static final long WAIT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getChanges_ShouldReturnCommittedChangesAfterOffset() throws Exception {
+        long start = lastSequence();
+        addAmenity(2, "Change Feed Spa");
+
+        mockMvc.perform(get("/property-view/changes").param("after", String.valueOf(start)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].sequence").value(start + 1))
+                .andExpect(jsonPath("$.changes[0].type").value("AMENITIES_ADDED"))
+                .andExpect(jsonPath("$.changes[0].hotelId").value(2))
+                .andExpect(jsonPath("$.changes[0].amenities[0]").value("Change Feed Spa"))
+                .andExpect(jsonPath("$.lastSequence").value(start + 1));
+    }
+
+    @Test
+    void getChanges_ShouldReturnGone_WhenOffsetIsNotRetained() throws Exception {
+        mockMvc.perform(get("/property-view/changes").param("after", "0"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void streamChanges_ShouldReturnGone_WhenLastEventIdIsNotRetained() throws Exception {
+        mockMvc.perform(get("/property-view/changes/stream").header("Last-Event-ID", "0")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void streamChanges_ShouldReplayFromLastEventIdAndPushNewChanges() throws Exception {
+        long start = lastSequence();
+        addAmenity(3, "Stream Sauna");
+
+        MockHttpServletResponse response = mockMvc.perform(get("/property-view/changes/stream")
+                        .header("Last-Event-ID", start)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(response, "id:" + (start + 1));
+        assertTrue(response.getContentAsString().contains("event:AMENITIES_ADDED"));
+
+        addAmenity(3, "Stream Gym");
+        awaitContent(response, "Stream Gym");
+        assertTrue(response.getContentAsString().contains("id:" + (start + 2)));
+    }
+
+    private long lastSequence() throws Exception {
+        String body = mockMvc.perform(get("/property-view/changes").param("limit", "1000"))
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.lastSequence")).longValue();
+    }
+
+    private void addAmenity(long hotelId, String amenity) throws Exception {
+        mockMvc.perform(post("/property-view/hotels/" + hotelId + "/amenities")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"" + amenity + "\"]"))
+                .andExpect(status().isOk());
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for " + expected);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tasks.hotelapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class HotelControllerMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_ShouldExposeEndpointServiceAndErrorMetrics() throws Exception {
+        mockMvc.perform(get("/property-view/search").param("brand", "hil"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/property-view/hotels/404"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/property-view/search\"")))
+                .andExpect(content().string(containsString("hotelapp_service_seconds_bucket{class=\"com.tasks.hotelapp.service.HotelService\"")))
+                .andExpect(content().string(containsString("method=\"getFilteredHotels\"")))
+                .andExpect(content().string(containsString("hotelapp_exceptions_total{exception=\"HotelNotFoundException\"} 1.0")))
+                .andExpect(content().string(containsString("hotelapp_search_results_count 1")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_max")))
+                .andExpect(content().string(containsString("hotelapp_db_limiter_available")));
+    }
+}
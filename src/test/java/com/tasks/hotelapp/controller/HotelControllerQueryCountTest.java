@@ -0,0 +1,355 @@
+package com.tasks.hotelapp.controller;
+
+import com.tasks.hotelapp.index.FullTextIndex;
+import com.tasks.hotelapp.service.HotelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards against N+1 regressions by counting the JDBC statements each endpoint prepares
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class HotelControllerQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private FullTextIndex fullTextIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getHotels_ShouldExecuteSingleStatement() throws Exception {
+        mockMvc.perform(get("/property-view/hotels"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotelById_ShouldFetchAmenitiesInSameStatement() throws Exception {
+        mockMvc.perform(get("/property-view/hotels/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amenities.length()").value(4));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotelById_ShouldBeServedFromCache_OnRepeatedRequest() throws Exception {
+        mockMvc.perform(get("/property-view/hotels/2"))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/hotels/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amenities.length()").value(4));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchHotel_ShouldExecuteSingleStatement() throws Exception {
+        mockMvc.perform(get("/property-view/search").param("amenities", "Spa", "Bar"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchHotel_ShouldReuseSerializedResponse_ForEquivalentFilters() throws Exception {
+        String body = mockMvc.perform(get("/property-view/search").param("brand", "Hilton").param("amenities", "Spa", "Bar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/search").param("brand", "HILTON").param("amenities", "Bar", "Spa", "Bar"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(body));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotels_ShouldServePrecompressedBody_WhenGzipIsAccepted() throws Exception {
+        byte[] json = mockMvc.perform(get("/property-view/hotels"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] gzip = mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotels_ShouldServeIdentityBody_WhenGzipIsRefused() throws Exception {
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "*;q=0.5"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.0, *"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void getHotels_ShouldTagGzipAndIdentityBodiesDifferently() throws Exception {
+        String etag = mockMvc.perform(get("/property-view/hotels"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, gzipEtag);
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void searchNearbyHotels_ShouldExecuteSingleStatement() throws Exception {
+        mockMvc.perform(get("/property-view/search/nearby").param("lat", "52.52").param("lon", "13.405")
+                        .param("radiusKm", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].hotel.id").value(3))
+                .andExpect(jsonPath("$[1].hotel.id").value(4))
+                .andExpect(jsonPath("$[2].hotel.id").value(1));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchHotelsByText_ShouldExecuteSingleStatement() throws Exception {
+        fullTextIndex.rebuild();
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/search/text").param("q", "palace eifel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].hotel.id").value(4))
+                .andExpect(jsonPath("$[0].highlights.description")
+                        .value("A <em>palace</em> hotel with an exclusive view of the <em>Eiffel</em> Tower."));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchHotelFaceted_ShouldCountFacetsWithSingleExtraStatement() throws Exception {
+        mockMvc.perform(get("/property-view/search/faceted").param("country", "ger").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotels.hotels[0].id").value(3))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.facets.CITY.Berlin").value(1))
+                .andExpect(jsonPath("$.facets.AMENITIES.Sauna").value(1))
+                .andExpect(jsonPath("$.facets.BRAND.Hilton").doesNotExist());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void scrollHotels_ShouldExecuteSingleStatement() throws Exception {
+        mockMvc.perform(get("/property-view/hotels/scroll").param("afterId", "1").param("limit", "2"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotelsPage_ShouldNotExecuteCountQuery() throws Exception {
+        mockMvc.perform(get("/property-view/hotels/page").param("size", "2"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotelHistogram_ShouldNotTouchDatabase() throws Exception {
+        mockMvc.perform(get("/property-view/histogram/amenities"))
+                .andExpect(status().isOk());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void importHotels_ShouldBatchInserts() throws Exception {
+        String body = IntStream.range(0, 120).mapToObj(i -> "{\"name\":\"Imported " + i + "\",\"brand\":\"Bulk\"," +
+                        "\"address\":{\"houseNumber\":" + (i + 1) + ",\"street\":\"Main St\",\"city\":\"Boston\"," +
+                        "\"country\":\"USA\",\"postCode\":\"02101\"},\"contacts\":{\"phone\":\"555-0000\"," +
+                        "\"email\":\"bulk@example.com\"},\"arrivalTime\":{\"checkIn\":\"14:00\",\"checkOut\":\"12:00\"}}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post("/property-view/hotels/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(120));
+
+        // One duplicate lookup, a sequence call per 50 ids and an insert statement per batch of 50
+        assertTrue(statistics.getPrepareStatementCount() <= 7, "statements: " + statistics.getPrepareStatementCount());
+        // The text index is refreshed once the import's transaction completes
+        mockMvc.perform(get("/property-view/search/text").param("q", "imported 119"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hotel.name").value("Imported 119"));
+    }
+
+    @Test
+    void addAmenitiesToHotels_ShouldUseSetBasedStatements() throws Exception {
+        mockMvc.perform(post("/property-view/hotels/amenities").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"hotelIds\":[3,4],\"amenities\":[\"Kids Club\",\"Sauna\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedHotels").value(2))
+                .andExpect(jsonPath("$.addedAmenities").value(3));
+
+        // Id lookup, existing rows lookup, one insert per amenity and the version update, whatever the number of hotels
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotels_ShouldReturnNotModifiedWithoutQuery_WhenCatalogIsUnchanged() throws Exception {
+        String etag = mockMvc.perform(get("/property-view/hotels"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/property-view/histogram/brand").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotelById_ShouldNotAnswerNotModified_FromReadThatOverlappedWrite() throws Exception {
+        String etag = mockMvc.perform(get("/property-view/hotels/3"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Cache hotels = cacheManager.getCache(HotelService.HOTEL_CACHE);
+        Object before = hotels.get(3L).get();
+        hotels.evict(3L);
+
+        // A read that loaded the hotel before the commit and is still storing it when the write evicts
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread read = new Thread(() -> hotels.get(3L, () -> {
+            loading.countDown();
+            release.await();
+            return before;
+        }));
+        read.start();
+        loading.await();
+        Thread write = new Thread(() -> {
+            try {
+                mockMvc.perform(post("/property-view/hotels/3/amenities").contentType(MediaType.APPLICATION_JSON)
+                                .content("[\"Late Checkout\"]"))
+                        .andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        write.start();
+        write.join(500);
+        release.countDown();
+        read.join();
+        write.join();
+
+        mockMvc.perform(get("/property-view/hotels/3").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amenities", hasItem("Late Checkout")));
+    }
+
+    @Test
+    void getHotelById_ShouldStayNotModified_WhenAnotherHotelChanges() throws Exception {
+        String etag = mockMvc.perform(get("/property-view/hotels/4"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/property-view/hotels/3/amenities").contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"Valet Parking\"]"))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/hotels/4").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHotelById_ShouldReturnNotModifiedFromCache_UntilHotelChanges() throws Exception {
+        String etag = mockMvc.perform(get("/property-view/hotels/4"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String catalogEtag = mockMvc.perform(get("/property-view/hotels"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/hotels/4").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(post("/property-view/hotels/4/amenities").contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"Rooftop Pool\"]"))
+                .andExpect(status().isOk());
+
+        String changedEtag = mockMvc.perform(get("/property-view/hotels/4").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changedEtag);
+        mockMvc.perform(get("/property-view/hotels").header(HttpHeaders.IF_NONE_MATCH, catalogEtag))
+                .andExpect(status().isOk());
+    }
+}
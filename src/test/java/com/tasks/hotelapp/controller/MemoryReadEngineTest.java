@@ -0,0 +1,82 @@
+package com.tasks.hotelapp.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "hotelapp.read-engine=memory")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MemoryReadEngineTest {
+    private static final String HOTEL = "{\"name\":\"Columnar Lodge\",\"brand\":\"Columnar\",\"address\":{\"houseNumber\":5," +
+            "\"street\":\"Array St\",\"city\":\"Memory Town\",\"country\":\"USA\",\"postCode\":\"02101\"}," +
+            "\"contacts\":{\"phone\":\"555-0105\",\"email\":\"lodge@example.com\"}," +
+            "\"arrivalTime\":{\"checkIn\":\"14:00\",\"checkOut\":\"12:00\"}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchAndHistogram_ShouldNotTouchDatabase() throws Exception {
+        mockMvc.perform(get("/property-view/search").param("city", "Berlin").param("amenities", "Sauna", "Spa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].address").value("3 Potsdamer Platz, Berlin, 10785, Germany"));
+        mockMvc.perform(get("/property-view/search").param("brand", "SHANGRI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4));
+        mockMvc.perform(get("/property-view/histogram/country"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Germany").value(1));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createHotel_ShouldBeVisibleToNextSearch() throws Exception {
+        mockMvc.perform(post("/property-view/hotels").contentType(MediaType.APPLICATION_JSON).content(HOTEL))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/property-view/search").param("city", "Memory Town"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Columnar Lodge"));
+        mockMvc.perform(get("/property-view/histogram/brand"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Columnar").value(1));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,122 @@
+package com.tasks.hotelapp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.dao.OutboxRepository;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.service.OutboxProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The poll interval keeps the scheduler out of the way, the tests run the worker themselves
+@SpringBootTest(properties = {"hotelapp.outbox.enabled=true", "hotelapp.outbox.poll-interval=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OutboxControllerTest {
+    private static final String HOTEL = "{\"name\":\"Outbox Inn\",\"brand\":\"Outbox\",\"address\":{\"houseNumber\":7," +
+            "\"street\":\"Queue St\",\"city\":\"Boston\",\"country\":\"USA\",\"postCode\":\"02101\"}," +
+            "\"contacts\":{\"phone\":\"555-0100\",\"email\":\"outbox@example.com\"}," +
+            "\"arrivalTime\":{\"checkIn\":\"14:00\",\"checkOut\":\"12:00\"}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OutboxProcessor outboxProcessor;
+
+    @Autowired
+    private HotelsRepository hotelsRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Test
+    void createHotel_ShouldBeAcceptedAndAppliedByWorker() throws Exception {
+        String location = mockMvc.perform(post("/property-view/hotels").contentType(MediaType.APPLICATION_JSON).content(HOTEL))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, containsString("/property-view/outbox/")))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.hotelId").value(nullValue()))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        outboxProcessor.processPending();
+
+        String entry = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andReturn().getResponse().getContentAsString();
+        Integer hotelId = JsonPath.read(entry, "$.hotelId");
+        mockMvc.perform(get("/property-view/hotels/" + hotelId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Outbox Inn"));
+    }
+
+    @Test
+    void createAmenities_ShouldMergeUpdatesOfOneHotelIntoSingleFlush() throws Exception {
+        long version = hotelsRepository.findById(3L).map(Hotel::getVersion).orElseThrow();
+        for (List<String> amenities : List.of(List.of("Outbox Sauna"), List.of("Outbox Gym", "Outbox Sauna"), List.of("Outbox Bar"))) {
+            mockMvc.perform(post("/property-view/hotels/3/amenities").contentType(MediaType.APPLICATION_JSON)
+                            .content(amenities.stream().map(a -> "\"" + a + "\"").toList().toString()))
+                    .andExpect(status().isAccepted());
+        }
+
+        outboxProcessor.processPending();
+
+        Hotel hotel = hotelsRepository.findWithAmenitiesById(3L).orElseThrow();
+        assertTrue(hotel.getAmenities().containsAll(List.of("Outbox Sauna", "Outbox Gym", "Outbox Bar")));
+        assertEquals(version + 1, hotel.getVersion());
+    }
+
+    @Test
+    void createAmenities_ShouldReturnNotFoundWithoutQueuing_WhenHotelDoesNotExist() throws Exception {
+        long pending = outboxRepository.count();
+
+        mockMvc.perform(post("/property-view/hotels/999999/amenities")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"Spa\"]"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(pending, outboxRepository.count());
+    }
+
+    @Test
+    void createAmenities_ShouldReturnBadRequest_WhenAmenitiesAreEmpty() throws Exception {
+        mockMvc.perform(post("/property-view/hotels/3/amenities")
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createHotel_ShouldReturnBadRequestWithoutQueuing_WhenFieldsAreMissing() throws Exception {
+        long pending = outboxRepository.count();
+
+        mockMvc.perform(post("/property-view/hotels").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"No Address Inn\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(pending, outboxRepository.count());
+    }
+
+    @Test
+    void getOutboxEntry_ShouldReturnNotFound_WhenEntryDoesNotExist() throws Exception {
+        mockMvc.perform(get("/property-view/outbox/999999"))
+                .andExpect(status().isNotFound());
+    }
+}
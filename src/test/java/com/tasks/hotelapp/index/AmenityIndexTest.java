@@ -0,0 +1,110 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AmenityIndexTest {
+
+    @Mock
+    private HotelsRepository hotelsRepository;
+
+    @InjectMocks
+    private AmenityIndex amenityIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(hotelsRepository.findHotelAmenities()).thenReturn(List.of(
+                hotelAmenity(1L, "WiFi"), hotelAmenity(1L, "Pool"),
+                hotelAmenity(2L, "WiFi"),
+                hotelAmenity(3L, "Pool"), hotelAmenity(3L, "Spa")));
+    }
+
+    @Test
+    void match_ShouldReturnNull_WhenIndexIsNotBuilt() {
+        assertNull(amenityIndex.match(List.of("WiFi"), AmenityMatch.ANY));
+    }
+
+    @Test
+    void match_ShouldReturnUnionOfHotels_ForAnyMatch() {
+        // Arrange
+        amenityIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L, 3L), BitSets.toIds(amenityIndex.match(List.of("WiFi", "Spa"), AmenityMatch.ANY)));
+    }
+
+    @Test
+    void match_ShouldReturnIntersectionOfHotels_ForAllMatch() {
+        // Arrange
+        amenityIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(1L), BitSets.toIds(amenityIndex.match(List.of("WiFi", "Pool"), AmenityMatch.ALL)));
+        assertTrue(amenityIndex.match(List.of("WiFi", "Unknown"), AmenityMatch.ALL).isEmpty());
+    }
+
+    @Test
+    void match_ShouldNotExposeInternalPostings() {
+        // Arrange
+        amenityIndex.rebuild();
+
+        // Act
+        amenityIndex.match(List.of("WiFi"), AmenityMatch.ALL).set(42);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), BitSets.toIds(amenityIndex.match(List.of("WiFi"), AmenityMatch.ALL)));
+    }
+
+    @Test
+    void count_ShouldCountAmenitiesOfGivenHotelsOnly() {
+        // Arrange
+        BitSet hotelIds = new BitSet();
+        hotelIds.set(1);
+        hotelIds.set(2);
+
+        // Act & Assert
+        assertEquals(Map.of("WiFi", 2, "Pool", 1), amenityIndex.count(hotelIds));
+    }
+
+    @Test
+    void onAmenitiesAdded_ShouldIndexNewAmenities() {
+        // Arrange
+        amenityIndex.rebuild();
+
+        // Act
+        amenityIndex.onAmenitiesAdded(new AmenitiesAddedEvent(2L, List.of("Spa")));
+
+        // Assert
+        assertEquals(List.of(2L, 3L), BitSets.toIds(amenityIndex.match(List.of("Spa"), AmenityMatch.ALL)));
+    }
+
+    private static HotelAmenity hotelAmenity(Long hotelId, String amenity) {
+        return new HotelAmenity() {
+            @Override
+            public Long getHotelId() {
+                return hotelId;
+            }
+
+            @Override
+            public String getAmenity() {
+                return amenity;
+            }
+        };
+    }
+}
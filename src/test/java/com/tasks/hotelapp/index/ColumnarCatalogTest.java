@@ -0,0 +1,335 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.AmenityMatch;
+import com.tasks.hotelapp.model.Contacts;
+import com.tasks.hotelapp.model.HistogramParam;
+import com.tasks.hotelapp.model.ReadEngine;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import com.tasks.hotelapp.model.projection.HotelRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ColumnarCatalogTest {
+
+    @Mock
+    private HotelsRepository hotelsRepository;
+
+    private ColumnarCatalog columnarCatalog;
+
+    @BeforeEach
+    void setUp() {
+        columnarCatalog = new ColumnarCatalog(hotelsRepository, ReadEngine.MEMORY, Integer.MAX_VALUE, 1);
+        lenient().when(hotelsRepository.findHotelRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                row(1L, "Hotel California", "Hilton", "Boston", "USA"),
+                row(2L, "California Dreams Inn", "Hyatt", "Berlin", "Germany"),
+                row(3L, "Sea Breeze", "Hilton Garden", "Boston", "USA")));
+        lenient().when(hotelsRepository.findHotelAmenitiesBetween(0L, 3L)).thenReturn(List.of(
+                amenity(1L, "WiFi"), amenity(1L, "Spa"), amenity(2L, "WiFi"), amenity(3L, "Pool")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        columnarCatalog.shutdown();
+    }
+
+    @Test
+    void findAll_ShouldReturnHotelsInIdOrderWithFormattedAddress() {
+        // Act
+        List<HotelDto> result = columnarCatalog.findAll();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(result));
+        assertEquals(new HotelDto(1L, "Hotel California", "About Hotel California",
+                "1 Main St, Boston, 00001, USA", "555-1"), result.get(0));
+    }
+
+    @Test
+    void find_ShouldMatchLikeDatabaseSearch() {
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), ids(columnarCatalog.find(search("CALIFORNIA", null, null, null))));
+        assertEquals(List.of(1L, 3L), ids(columnarCatalog.find(search(null, "hil", null, null))));
+        assertEquals(List.of(3L), ids(columnarCatalog.find(search("sea", "hil", "Boston", "us"))));
+        assertTrue(columnarCatalog.find(search(null, null, "boston", null)).isEmpty());
+        assertTrue(columnarCatalog.find(search(null, "marriott", null, null)).isEmpty());
+    }
+
+    @Test
+    void find_ShouldMatchAnyOrAllAmenities() {
+        // Act & Assert
+        assertEquals(List.of(1L, 3L), ids(columnarCatalog.find(
+                new HotelSearchDto(null, null, null, null, List.of("Spa", "Pool", "Sauna"), AmenityMatch.ANY))));
+        assertEquals(List.of(1L), ids(columnarCatalog.find(
+                new HotelSearchDto(null, null, null, null, List.of("WiFi", "Spa", "WiFi"), AmenityMatch.ALL))));
+        assertTrue(columnarCatalog.find(
+                new HotelSearchDto(null, null, null, null, List.of("WiFi", "Sauna"), AmenityMatch.ALL)).isEmpty());
+    }
+
+    @Test
+    void histogram_ShouldCountHotelsPerValue() {
+        // Act & Assert
+        assertEquals(Map.of("Hilton", 1, "Hyatt", 1, "Hilton Garden", 1), columnarCatalog.histogram(HistogramParam.BRAND));
+        assertEquals(Map.of("Boston", 2, "Berlin", 1), columnarCatalog.histogram(HistogramParam.CITY));
+        assertEquals(Map.of("WiFi", 2, "Spa", 1, "Pool", 1), columnarCatalog.histogram(HistogramParam.AMENITIES));
+    }
+
+    @Test
+    void facets_ShouldCountOnlyMatchingHotels() {
+        // Act
+        ColumnarCatalog.Facets result = columnarCatalog.facets(search(null, null, "Boston", null));
+
+        // Assert
+        assertEquals(2, result.total());
+        assertEquals(Map.of("Hilton", 1, "Hilton Garden", 1), result.counts().get(HistogramParam.BRAND));
+        assertEquals(Map.of("Boston", 2), result.counts().get(HistogramParam.CITY));
+        assertEquals(Map.of("WiFi", 1, "Spa", 1, "Pool", 1), result.counts().get(HistogramParam.AMENITIES));
+        assertEquals(0, columnarCatalog.facets(search(null, "marriott", null, null)).total());
+    }
+
+    @Test
+    void find_ShouldReturnSameResultsInParallel_WhenCatalogIsAboveThreshold() {
+        // Arrange
+        List<HotelRow> rows = new ArrayList<>();
+        List<HotelAmenity> amenities = new ArrayList<>();
+        LongStream.rangeClosed(1, 5L * ColumnarCatalog.CHUNK_SIZE).forEach(id -> {
+            rows.add(row(id, "Hotel " + id, "Brand " + id % 7, "City " + id % 11, "USA"));
+            amenities.add(amenity(id, "Amenity " + id % 3));
+        });
+        when(hotelsRepository.findHotelRowsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.<Limit>getArgument(1).max();
+            return rows.subList((int) Math.min(afterId, rows.size()), (int) Math.min(afterId + limit, rows.size()));
+        });
+        when(hotelsRepository.findHotelAmenitiesBetween(anyLong(), anyLong())).thenAnswer(invocation ->
+                amenities.subList(invocation.<Long>getArgument(0).intValue(), invocation.<Long>getArgument(1).intValue()));
+        ColumnarCatalog parallelCatalog = new ColumnarCatalog(hotelsRepository, ReadEngine.MEMORY, 0, 4);
+        HotelSearchDto search = new HotelSearchDto("1", "brand 3", null, null, List.of("Amenity 1"), AmenityMatch.ANY);
+
+        try {
+            // Act
+            List<HotelDto> result = parallelCatalog.find(search);
+            ColumnarCatalog.Facets facets = parallelCatalog.facets(search);
+
+            // Assert
+            assertEquals(columnarCatalog.find(search), result);
+            assertEquals(columnarCatalog.facets(search), facets);
+            assertEquals(rows.size(), parallelCatalog.findAll().size());
+            assertFalse(result.isEmpty());
+        } finally {
+            parallelCatalog.shutdown();
+        }
+    }
+
+    @Test
+    void onHotelCreated_ShouldInsertHotelInIdOrderAndCountIt() {
+        // Arrange
+        columnarCatalog.rebuild();
+        columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(5L, "Lake View", "Paris", "Sauna")));
+
+        // Act
+        columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(4L, "Lake Side", "Boston", "WiFi")));
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(columnarCatalog.findAll()));
+        assertEquals(List.of(4L, 5L), ids(columnarCatalog.find(search("lake", null, null, null))));
+        assertEquals(Map.of("Boston", 3, "Berlin", 1, "Paris", 1), columnarCatalog.histogram(HistogramParam.CITY));
+        assertEquals(3, columnarCatalog.histogram(HistogramParam.AMENITIES).get("WiFi"));
+    }
+
+    @Test
+    void onHotelCreated_ShouldSplitFullChunks() {
+        // Arrange
+        List<HotelRow> rows = new ArrayList<>();
+        LongStream.rangeClosed(1, ColumnarCatalog.CHUNK_SIZE)
+                .forEach(id -> rows.add(row(id * 2, "Hotel " + id * 2, "Hilton", "Boston", "USA")));
+        when(hotelsRepository.findHotelRowsAfter(eq(0L), any(Limit.class))).thenReturn(rows);
+        when(hotelsRepository.findHotelAmenitiesBetween(anyLong(), anyLong())).thenReturn(List.of());
+        columnarCatalog.rebuild();
+
+        // Act
+        columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(3L, "Hotel 3", "Boston", "WiFi")));
+        columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(5000L, "Hotel 5000", "Boston", "WiFi")));
+
+        // Assert
+        List<Long> ids = ids(columnarCatalog.findAll());
+        assertEquals(ColumnarCatalog.CHUNK_SIZE + 2, ids.size());
+        assertEquals(List.of(2L, 3L, 4L), ids.subList(0, 3));
+        assertEquals(5000L, ids.get(ids.size() - 1));
+        assertEquals(List.of(3L, 5000L), ids(columnarCatalog.find(
+                new HotelSearchDto(null, null, null, null, List.of("WiFi"), AmenityMatch.ANY))));
+    }
+
+    @Test
+    void onHotelCreated_ShouldSwapInTransactionsWritesTogether_WhenTransactionCompletes() {
+        // Arrange
+        columnarCatalog.rebuild();
+        int created = ColumnarCatalog.CHUNK_SIZE * 2;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            LongStream.rangeClosed(5, created + 4).forEach(id ->
+                    columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(id, "Imported " + id, "Paris", "WiFi"))));
+            columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(4L, "Late Commit", "Paris")));
+            columnarCatalog.onAmenitiesAdded(new AmenitiesAddedEvent(4L, List.of("Pool")));
+            columnarCatalog.onAmenitiesAdded(new AmenitiesAddedEvent(2L, List.of("Pool")));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // Assert
+            assertEquals(List.of(1L, 2L, 3L), ids(columnarCatalog.findAll()));
+            assertEquals(1, synchronizations.size());
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        List<Long> ids = ids(columnarCatalog.findAll());
+        assertEquals(LongStream.rangeClosed(1, created + 4).boxed().toList(), ids);
+        assertEquals(List.of(2L, 3L, 4L), ids(columnarCatalog.find(
+                new HotelSearchDto(null, null, null, null, List.of("Pool"), AmenityMatch.ANY))));
+        assertEquals(created + 2, columnarCatalog.histogram(HistogramParam.AMENITIES).get("WiFi"));
+        assertEquals(created + 1, columnarCatalog.histogram(HistogramParam.CITY).get("Paris"));
+    }
+
+    @Test
+    void onHotelCreated_ShouldDiscardChanges_WhenTransactionDoesNotCommit() {
+        // Arrange
+        columnarCatalog.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            columnarCatalog.onHotelCreated(new HotelCreatedEvent(hotel(4L, "Rolled Back", "Paris")));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(columnarCatalog.findAll()));
+    }
+
+    @Test
+    void onAmenitiesAdded_ShouldLeaveEarlierResultsUnchanged() {
+        // Arrange
+        columnarCatalog.rebuild();
+        HotelSearchDto withPool = new HotelSearchDto(null, null, null, null, List.of("Pool"), AmenityMatch.ANY);
+        List<HotelDto> before = columnarCatalog.find(withPool);
+
+        // Act
+        columnarCatalog.onAmenitiesAdded(new AmenitiesAddedEvent(2L, List.of("Pool", "WiFi")));
+
+        // Assert
+        assertEquals(List.of(3L), ids(before));
+        assertEquals(List.of(2L, 3L), ids(columnarCatalog.find(withPool)));
+        assertEquals(Map.of("WiFi", 2, "Spa", 1, "Pool", 2), columnarCatalog.histogram(HistogramParam.AMENITIES));
+    }
+
+    @Test
+    void rebuild_ShouldNotLoadAnything_WhenDatabaseEngineIsSelected() {
+        // Act
+        new ColumnarCatalog(hotelsRepository, ReadEngine.DATABASE, Integer.MAX_VALUE, 1).rebuild();
+
+        // Assert
+        verifyNoInteractions(hotelsRepository);
+    }
+
+    private static List<Long> ids(List<HotelDto> hotels) {
+        return hotels.stream().map(HotelDto::getId).toList();
+    }
+
+    private static HotelSearchDto search(String name, String brand, String city, String country) {
+        return new HotelSearchDto(name, brand, city, country, null, AmenityMatch.ANY);
+    }
+
+    private static Hotel hotel(Long id, String name, String city, String... amenities) {
+        return Hotel.builder().id(id).name(name).brand("Hyatt")
+                .address(new Address(1, "Main St", city, "France", "00000"))
+                .contacts(new Contacts("555", "hotel@example.com"))
+                .amenities(new LinkedHashSet<>(List.of(amenities)))
+                .build();
+    }
+
+    private static HotelRow row(Long id, String name, String brand, String city, String country) {
+        return new HotelRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "About " + name;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public String getAddressLine() {
+                return Address.format(1, "Main St", city, String.format("%05d", id), country);
+            }
+
+            @Override
+            public String getCity() {
+                return city;
+            }
+
+            @Override
+            public String getCountry() {
+                return country;
+            }
+
+            @Override
+            public String getPhone() {
+                return "555-" + id;
+            }
+        };
+    }
+
+    private static HotelAmenity amenity(Long hotelId, String amenity) {
+        return new HotelAmenity() {
+            @Override
+            public Long getHotelId() {
+                return hotelId;
+            }
+
+            @Override
+            public String getAmenity() {
+                return amenity;
+            }
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelText;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FullTextIndexTest {
+
+    @Mock
+    private HotelsRepository hotelsRepository;
+
+    @InjectMocks
+    private FullTextIndex fullTextIndex;
+
+    private final List<HotelText> texts = List.of(
+            hotelText(1L, "Grand Palace", "Rooms next to the beach.", "Hilton", "Berlin"),
+            hotelText(2L, "Seaside Inn", "A grand view of the bay.", "Marriott", "São Paulo"),
+            hotelText(3L, "City Lodge", "Close to the central station.", "Ibis", "Hamburg"));
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(hotelsRepository.findHotelTextsAfter(eq(0L), any(Limit.class))).thenReturn(texts);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fullTextIndex.shutdown();
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        // Arrange
+        fullTextIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), ids(fullTextIndex.search("grand", 10)));
+    }
+
+    @Test
+    void search_ShouldRequireEveryTermToMatch() {
+        // Arrange
+        fullTextIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(2L), ids(fullTextIndex.search("grand bay", 10)));
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesTyposAndAccentFreeSpelling() {
+        // Arrange
+        fullTextIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(3L), ids(fullTextIndex.search("hamb", 10)));
+        assertEquals(List.of(1L), ids(fullTextIndex.search("berlni", 10)));
+        assertEquals(List.of(2L), ids(fullTextIndex.search("Sao Paulo", 10)));
+    }
+
+    @Test
+    void search_ShouldHighlightMatchesInNameAndDescription() {
+        // Arrange
+        fullTextIndex.rebuild();
+
+        // Act
+        List<FullTextIndex.Hit> hits = fullTextIndex.search("grand", 10);
+
+        // Assert
+        assertEquals(Map.of(FullTextIndex.NAME, "<em>Grand</em> Palace"), hits.get(0).highlights());
+        assertEquals(Map.of(FullTextIndex.DESCRIPTION, "A <em>grand</em> view of the bay."), hits.get(1).highlights());
+    }
+
+    @Test
+    void search_ShouldReturnNothing_WhenQueryHasNoTerms() {
+        // Act & Assert
+        assertTrue(fullTextIndex.search("!?", 10).isEmpty());
+        verifyNoInteractions(hotelsRepository);
+    }
+
+    @Test
+    void onHotelCreated_ShouldMakeHotelSearchable() {
+        // Arrange
+        fullTextIndex.rebuild();
+
+        // Act
+        fullTextIndex.onHotelCreated(new HotelCreatedEvent(hotel(4L, "Harbour View")));
+
+        // Assert
+        assertEquals(List.of(4L), ids(fullTextIndex.search("harbour", 10)));
+    }
+
+    @Test
+    void onHotelCreated_ShouldRefreshOnceWhenTransactionCompletes() {
+        // Arrange
+        fullTextIndex.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            fullTextIndex.onHotelCreated(new HotelCreatedEvent(hotel(4L, "Harbour View")));
+            fullTextIndex.onHotelCreated(new HotelCreatedEvent(hotel(5L, "Harbour Lights")));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // Assert
+            assertTrue(fullTextIndex.search("harbour", 10).isEmpty());
+            assertEquals(1, synchronizations.size());
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(4L, 5L), ids(fullTextIndex.search("harbour", 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void rebuild_ShouldKeepHotelsCreatedWhileCatalogIsRead() {
+        // Arrange
+        when(hotelsRepository.findHotelTextsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            fullTextIndex.onHotelCreated(new HotelCreatedEvent(hotel(4L, "Harbour View")));
+            return texts;
+        });
+
+        // Act
+        fullTextIndex.rebuild();
+
+        // Assert
+        assertEquals(List.of(4L), ids(fullTextIndex.search("harbour", 10)));
+        assertEquals(List.of(3L), ids(fullTextIndex.search("lodge", 10)));
+    }
+
+    private static List<Long> ids(List<FullTextIndex.Hit> hits) {
+        return hits.stream().map(FullTextIndex.Hit::hotelId).toList();
+    }
+
+    private static Hotel hotel(Long id, String name) {
+        return Hotel.builder().id(id).name(name).brand("Hyatt")
+                .address(new Address(1, "Pier Road", "Kiel", "Germany", "24103")).build();
+    }
+
+    private static HotelText hotelText(Long id, String name, String description, String brand, String city) {
+        return new HotelText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public String getCity() {
+                return city;
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GeoIndexTest {
+
+    @Mock
+    private HotelsRepository hotelsRepository;
+
+    @InjectMocks
+    private GeoIndex geoIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(hotelsRepository.findHotelLocations()).thenReturn(List.of(
+                location(1L, 52.5200, 13.4050),     // Berlin
+                location(2L, 52.3906, 13.0645),     // Potsdam
+                location(3L, 53.5511, 9.9937),      // Hamburg
+                location(4L, -17.0, 179.9),
+                location(5L, -17.0, -179.9),
+                location(6L, 89.9, 0.0),
+                location(7L, 89.9, 180.0)));
+    }
+
+    @Test
+    void nearest_ShouldReturnHotelsWithinRadiusSortedByDistance() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act
+        List<GeoIndex.Neighbor> result = geoIndex.nearest(52.5200, 13.4050, 50.0, 20);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(0.0, result.get(0).distanceKm(), 0.001);
+        assertEquals(27.0, result.get(1).distanceKm(), 1.0);
+    }
+
+    @Test
+    void nearest_ShouldWidenSearchUntilLimitIsReached_WhenRadiusIsNotGiven() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act
+        List<GeoIndex.Neighbor> result = geoIndex.nearest(52.5200, 13.4050, null, 3);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(result));
+        assertEquals(255.0, result.get(2).distanceKm(), 5.0);
+        assertEquals(7, geoIndex.nearest(0.0, 0.0, null, 20).size());
+    }
+
+    @Test
+    void nearest_ShouldKeepOnlyClosestHotels_WhenMoreAreWithinRadius() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(2L), ids(geoIndex.nearest(52.3906, 13.0645, 500.0, 1)));
+    }
+
+    @Test
+    void nearest_ShouldFindHotelsAcrossAntimeridianAndPole() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(4L, 5L), ids(geoIndex.nearest(-17.0, 179.95, 30.0, 20)));
+        assertEquals(List.of(6L, 7L), ids(geoIndex.nearest(89.95, 0.0, 30.0, 20)));
+    }
+
+    @Test
+    void nearest_ShouldScanOccupiedCellsOnly_WhenRadiusCoversMostOfTheGlobe() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act
+        List<GeoIndex.Neighbor> result = geoIndex.nearest(52.5200, 13.4050, 8000.0, 20);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 6L, 7L), ids(result));
+    }
+
+    @Test
+    void nearest_ShouldReturnEmptyList_WhenNoHotelIsIndexed() {
+        // Arrange
+        when(hotelsRepository.findHotelLocations()).thenReturn(List.of());
+        geoIndex.rebuild();
+
+        // Act & Assert
+        assertTrue(geoIndex.nearest(52.5200, 13.4050, null, 20).isEmpty());
+    }
+
+    @Test
+    void onHotelCreated_ShouldIndexHotelsWithCoordinatesOnly() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act
+        geoIndex.onHotelCreated(new HotelCreatedEvent(Hotel.builder().id(8L)
+                .address(new Address(1, "Unter den Linden", "Berlin", "Germany", "10117", 52.5163, 13.3777)).build()));
+        geoIndex.onHotelCreated(new HotelCreatedEvent(Hotel.builder().id(9L)
+                .address(new Address(2, "Unter den Linden", "Berlin", "Germany", "10117")).build()));
+
+        // Assert
+        assertEquals(List.of(1L, 8L), ids(geoIndex.nearest(52.5200, 13.4050, 5.0, 20)));
+    }
+
+    @Test
+    void onHotelCreated_ShouldSkipHotel_WhenRebuildAlreadyIndexedIt() {
+        // Arrange
+        geoIndex.rebuild();
+
+        // Act
+        geoIndex.onHotelCreated(new HotelCreatedEvent(Hotel.builder().id(1L)
+                .address(new Address(1, "Pariser Platz", "Berlin", "Germany", "10117", 52.5200, 13.4050)).build()));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids(geoIndex.nearest(52.5200, 13.4050, 50.0, 2)));
+    }
+
+    private static List<Long> ids(List<GeoIndex.Neighbor> neighbors) {
+        return neighbors.stream().map(GeoIndex.Neighbor::hotelId).toList();
+    }
+
+    private static HotelLocation location(Long id, double latitude, double longitude) {
+        return new HotelLocation() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public double getLatitude() {
+                return latitude;
+            }
+
+            @Override
+            public double getLongitude() {
+                return longitude;
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.Address;
+import com.tasks.hotelapp.model.HistogramParam;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HistogramEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HotelHistogramIndexTest {
+
+    @Mock
+    private HotelsRepository hotelsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private HotelHistogramIndex histogramIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(hotelsRepository.findBrandHistogram()).thenReturn(List.of(histogramEntry("BrandX", 2)));
+        lenient().when(hotelsRepository.findCityHistogram()).thenReturn(List.of(histogramEntry("Los Angeles", 2)));
+        lenient().when(hotelsRepository.findCountryHistogram()).thenReturn(List.of(histogramEntry("USA", 2)));
+        lenient().when(hotelsRepository.findAmenityHistogram()).thenReturn(List.of(histogramEntry("WiFi", 1)));
+    }
+
+    @Test
+    void snapshot_ShouldBuildCountersFromRepository_OnFirstRead() {
+        // Act
+        Map<String, Integer> result = histogramIndex.snapshot(HistogramParam.BRAND);
+
+        // Assert
+        assertEquals(Map.of("BrandX", 2), result);
+        verify(hotelsRepository, times(1)).findBrandHistogram();
+    }
+
+    @Test
+    void snapshot_ShouldNotQueryRepository_AfterIndexIsBuilt() {
+        // Arrange
+        histogramIndex.rebuild();
+        clearInvocations(hotelsRepository);
+
+        // Act
+        histogramIndex.snapshot(HistogramParam.CITY);
+        histogramIndex.snapshot(HistogramParam.AMENITIES);
+
+        // Assert
+        verifyNoInteractions(hotelsRepository);
+    }
+
+    @Test
+    void onHotelCreated_ShouldIncrementAllCounters() {
+        // Arrange
+        histogramIndex.rebuild();
+
+        // Act
+        histogramIndex.onHotelCreated(new HotelCreatedEvent(hotel("BrandY", "Paris", "France", "WiFi", "Spa")));
+
+        // Assert
+        assertEquals(Map.of("BrandX", 2, "BrandY", 1), histogramIndex.snapshot(HistogramParam.BRAND));
+        assertEquals(1, histogramIndex.snapshot(HistogramParam.CITY).get("Paris"));
+        assertEquals(1, histogramIndex.snapshot(HistogramParam.COUNTRY).get("France"));
+        assertEquals(Map.of("WiFi", 2, "Spa", 1), histogramIndex.snapshot(HistogramParam.AMENITIES));
+    }
+
+    @Test
+    void onAmenitiesAdded_ShouldCountConcurrentWritersExactly() {
+        // Arrange
+        histogramIndex.rebuild();
+
+        // Act
+        IntStream.range(0, 1000).parallel()
+                .forEach(i -> histogramIndex.onAmenitiesAdded(new AmenitiesAddedEvent((long) i, List.of("Pool"))));
+
+        // Assert
+        assertEquals(1000, histogramIndex.snapshot(HistogramParam.AMENITIES).get("Pool"));
+    }
+
+    @Test
+    void checkConsistency_ShouldReportDriftAndRebuildShouldFixIt() {
+        // Arrange
+        histogramIndex.rebuild();
+        histogramIndex.onAmenitiesAdded(new AmenitiesAddedEvent(1L, List.of("Pool")));
+
+        // Act
+        Map<HistogramParam, Boolean> before = histogramIndex.checkConsistency();
+        histogramIndex.rebuild();
+        Map<HistogramParam, Boolean> after = histogramIndex.checkConsistency();
+
+        // Assert
+        assertFalse(before.get(HistogramParam.AMENITIES));
+        assertTrue(before.get(HistogramParam.BRAND));
+        assertTrue(after.values().stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    void rebuild_ShouldNotCountCommitTwice_WhenItRunsBeforeTheCommitIsApplied() throws InterruptedException {
+        // Arrange
+        histogramIndex.rebuild();
+        when(hotelsRepository.findAmenityHistogram())
+                .thenReturn(List.of(histogramEntry("WiFi", 1), histogramEntry("Pool", 1)));
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            histogramIndex.onAmenitiesAdded(new AmenitiesAddedEvent(1L, List.of("Pool")));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // Act
+            Thread rebuild = new Thread(histogramIndex::rebuild);
+            rebuild.start();
+            while (rebuild.getState() != Thread.State.WAITING && rebuild.isAlive()) {
+                Thread.onSpinWait();
+            }
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            rebuild.join();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(Map.of("WiFi", 1, "Pool", 1), histogramIndex.snapshot(HistogramParam.AMENITIES));
+    }
+
+    @Test
+    void onAmenitiesAdded_ShouldNotCount_WhenTransactionRollsBack() {
+        // Arrange
+        histogramIndex.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            histogramIndex.onAmenitiesAdded(new AmenitiesAddedEvent(1L, List.of("Pool")));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(Map.of("WiFi", 1), histogramIndex.snapshot(HistogramParam.AMENITIES));
+    }
+
+    private static Hotel hotel(String brand, String city, String country, String... amenities) {
+        return Hotel.builder()
+                .brand(brand)
+                .address(new Address(1, "Main St", city, country, "00000"))
+                .amenities(new LinkedHashSet<>(List.of(amenities)))
+                .build();
+    }
+
+    private static HistogramEntry histogramEntry(String label, long total) {
+        return new HistogramEntry() {
+            @Override
+            public String getLabel() {
+                return label;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
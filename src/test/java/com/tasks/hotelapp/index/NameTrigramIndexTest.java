@@ -0,0 +1,90 @@
+package com.tasks.hotelapp.index;
+
+import com.tasks.hotelapp.dao.HotelsRepository;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
+import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NameTrigramIndexTest {
+
+    @Mock
+    private HotelsRepository hotelsRepository;
+
+    @InjectMocks
+    private NameTrigramIndex nameTrigramIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(hotelsRepository.findHotelNames()).thenReturn(List.of(
+                hotelName(1L, "Hotel California"),
+                hotelName(2L, "California Dreams Inn"),
+                hotelName(3L, "Inn of the Sixth Happiness")));
+    }
+
+    @Test
+    void search_ShouldFindSubstringCaseInsensitively() {
+        // Arrange
+        nameTrigramIndex.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), BitSets.toIds(nameTrigramIndex.search("CALIFOR")));
+        assertEquals(List.of(2L, 3L), BitSets.toIds(nameTrigramIndex.search("inn")));
+    }
+
+    @Test
+    void search_ShouldDropCandidatesWhoseTrigramsAreNotContiguous() {
+        // Arrange
+        nameTrigramIndex.rebuild();
+
+        // Act & Assert
+        // "the" and "inn" both occur in hotel 3, but not as "theinn"
+        assertTrue(nameTrigramIndex.search("theinn").isEmpty());
+    }
+
+    @Test
+    void search_ShouldReturnNull_ForQueriesShorterThanTrigram() {
+        // Arrange
+        nameTrigramIndex.rebuild();
+
+        // Act & Assert
+        assertNull(nameTrigramIndex.search("in"));
+    }
+
+    @Test
+    void onHotelCreated_ShouldIndexNewName() {
+        // Arrange
+        nameTrigramIndex.rebuild();
+
+        // Act
+        nameTrigramIndex.onHotelCreated(new HotelCreatedEvent(Hotel.builder().id(4L).name("Seaside Resort").build()));
+
+        // Assert
+        assertEquals(List.of(4L), BitSets.toIds(nameTrigramIndex.search("side re")));
+    }
+
+    private static HotelName hotelName(Long id, String name) {
+        return new HotelName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.tasks.hotelapp.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.tasks.hotelapp.model.dto.HotelDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HotelDtoSerializerTest {
+
+    private final ObjectMapper beanMapper = new ObjectMapper();
+    private final ObjectMapper handWrittenMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(new HotelDtoSerializer()));
+
+    @Test
+    void serialize_ShouldWriteSameJsonAsBeanSerializer() throws Exception {
+        // Arrange
+        List<HotelDto> hotels = List.of(
+                new HotelDto(1L, "Grand \"Palace\"", "Über — views", "12 Main St, Berlin, 10115, Germany", "+49 30"),
+                new HotelDto(2L, "Seaside Inn", null, null, null));
+
+        // Act
+        String json = handWrittenMapper.writeValueAsString(hotels);
+
+        // Assert
+        assertEquals(beanMapper.writeValueAsString(hotels), json);
+        assertEquals("[{\"id\":1,\"name\":\"Grand \\\"Palace\\\"\",\"description\":\"Über — views\"," +
+                "\"address\":\"12 Main St, Berlin, 10115, Germany\",\"phone\":\"+49 30\"}," +
+                "{\"id\":2,\"name\":\"Seaside Inn\",\"description\":null,\"address\":null,\"phone\":null}]", json);
+    }
+}
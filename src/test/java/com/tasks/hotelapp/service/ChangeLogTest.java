@@ -0,0 +1,111 @@
+package com.tasks.hotelapp.service;
+
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.exception.ChangeOffsetExpiredException;
+import com.tasks.hotelapp.exception.NotValidDataException;
+import com.tasks.hotelapp.model.ChangeType;
+import com.tasks.hotelapp.model.dto.HotelChangeDto;
+import com.tasks.hotelapp.model.dto.HotelChangesDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogTest {
+
+    private final ChangeLog changeLog = new ChangeLog(3, 2);
+
+    @AfterEach
+    void tearDown() {
+        changeLog.shutdown();
+    }
+
+    @Test
+    void read_ShouldReturnChangesInOrder_AfterGivenOffset() {
+        long start = changeLog.read(null, 10).getLastSequence();
+        changeLog.onAmenitiesAdded(new AmenitiesAddedEvent(1L, List.of("Spa")));
+        changeLog.onAmenitiesAdded(new AmenitiesAddedEvent(2L, List.of("Bar", "Gym")));
+
+        HotelChangesDto all = changeLog.read(start, 10);
+        assertEquals(List.of(start + 1, start + 2), all.getChanges().stream().map(HotelChangeDto::getSequence).toList());
+        assertEquals(start + 2, all.getLastSequence());
+        HotelChangeDto change = all.getChanges().get(1);
+        assertEquals(ChangeType.AMENITIES_ADDED, change.getType());
+        assertEquals(2L, change.getHotelId());
+        assertEquals(List.of("Bar", "Gym"), change.getAmenities());
+
+        HotelChangesDto first = changeLog.read(start, 1);
+        assertEquals(1, first.getChanges().size());
+        assertEquals(start + 1, first.getLastSequence());
+
+        HotelChangesDto none = changeLog.read(start + 2, 10);
+        assertTrue(none.getChanges().isEmpty());
+        assertEquals(start + 2, none.getLastSequence());
+    }
+
+    @Test
+    void read_ShouldThrowChangeOffsetExpiredException_WhenChangesWereOverwritten() {
+        long start = changeLog.read(null, 10).getLastSequence();
+        for (long hotelId = 1; hotelId <= 4; hotelId++) {
+            changeLog.onAmenitiesAdded(new AmenitiesAddedEvent(hotelId, List.of("Spa")));
+        }
+
+        assertThrows(ChangeOffsetExpiredException.class, () -> changeLog.read(start, 10));
+        assertEquals(3, changeLog.read(start + 1, 10).getChanges().size());
+        assertEquals(3, changeLog.read(null, 10).getChanges().size());
+    }
+
+    @Test
+    void read_ShouldThrowChangeOffsetExpiredException_WhenOffsetIsFromAnotherRun() {
+        long start = changeLog.read(null, 10).getLastSequence();
+
+        assertThrows(ChangeOffsetExpiredException.class, () -> changeLog.read(start - 1, 10));
+        assertThrows(ChangeOffsetExpiredException.class, () -> changeLog.read(start + 1, 10));
+    }
+
+    @Test
+    void subscribe_ShouldCompleteSubscriber_WhenItFallsBehind() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        SseEmitter slow = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            @Override
+            public void complete() {
+                completed.countDown();
+            }
+        };
+        changeLog.subscribe(null, slow);
+
+        // The first change is taken by the blocked send, the next two fill the queue and the last one overflows it
+        changeLog.onAmenitiesAdded(new AmenitiesAddedEvent(1L, List.of("Spa")));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        for (long hotelId = 2; hotelId <= 4; hotelId++) {
+            changeLog.onAmenitiesAdded(new AmenitiesAddedEvent(hotelId, List.of("Spa")));
+        }
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void read_ShouldThrowNotValidDataException_WhenLimitIsOutOfRange() {
+        assertThrows(NotValidDataException.class, () -> changeLog.read(null, 0));
+        assertThrows(NotValidDataException.class, () -> changeLog.read(null, HotelService.MAX_PAGE_SIZE + 1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.tasks.hotelapp.service;
+
+import com.tasks.hotelapp.model.ImportStatus;
+import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelImportDto;
+import com.tasks.hotelapp.model.dto.HotelImportResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class HotelImportServiceTest {
+
+    @Mock
+    private HotelService hotelService;
+
+    private HotelImportService hotelImportService;
+
+    @BeforeEach
+    void setUp() {
+        hotelImportService = new HotelImportService(hotelService, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Test
+    void importHotels_ShouldImportJsonArrayInChunks() {
+        // Arrange
+        int count = HotelImportService.CHUNK_SIZE * 2 + 1;
+        String body = IntStream.range(0, count).mapToObj(i -> hotelJson("Hotel " + i))
+                .collect(Collectors.joining(",", "[", "]"));
+        when(hotelService.importHotels(anyList(), anyInt())).thenAnswer(invocation -> created(
+                invocation.getArgument(0), invocation.getArgument(1)));
+
+        // Act
+        HotelImportDto result = hotelImportService.importHotels(input(body));
+
+        // Assert
+        assertEquals(count, result.getCreated());
+        assertEquals(count, result.getResults().size());
+        verify(hotelService, times(1)).importHotels(anyList(), eq(0));
+        verify(hotelService, times(1)).importHotels(anyList(), eq(HotelImportService.CHUNK_SIZE));
+        verify(hotelService, times(1)).importHotels(anyList(), eq(HotelImportService.CHUNK_SIZE * 2));
+    }
+
+    @Test
+    void importHotels_ShouldKeepRecordsBeforeMalformedNdjsonLine() {
+        // Arrange
+        String body = hotelJson("First") + "\n" + hotelJson("Second") + "\n{\"name\": \n" + hotelJson("Third") + "\n";
+        when(hotelService.importHotels(anyList(), anyInt())).thenAnswer(invocation -> created(
+                invocation.getArgument(0), invocation.getArgument(1)));
+
+        // Act
+        HotelImportDto result = hotelImportService.importHotels(input(body));
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getInvalid());
+        assertEquals(2, result.getResults().get(2).getIndex());
+        assertEquals(ImportStatus.INVALID, result.getResults().get(2).getStatus());
+    }
+
+    private static List<HotelImportResultDto> created(List<HotelCreateDto> hotels, int firstIndex) {
+        List<HotelImportResultDto> results = new ArrayList<>();
+        for (int i = 0; i < hotels.size(); i++) {
+            results.add(new HotelImportResultDto(firstIndex + i, ImportStatus.CREATED, (long) firstIndex + i, null));
+        }
+        return results;
+    }
+
+    private static String hotelJson(String name) {
+        return "{\"name\":\"" + name + "\",\"brand\":\"BrandX\",\"address\":{\"houseNumber\":1,\"street\":\"Main St\"," +
+                "\"city\":\"Boston\",\"country\":\"USA\",\"postCode\":\"02101\"},\"contacts\":{\"phone\":\"555-0000\"," +
+                "\"email\":\"info@example.com\"},\"arrivalTime\":{\"checkIn\":\"14:00\",\"checkOut\":\"12:00\"}}";
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,24 +3,52 @@ package com.tasks.hotelapp.service;
 import com.tasks.hotelapp.dao.HotelsRepository;
 import com.tasks.hotelapp.exception.HotelAlreadyExistsException;
 import com.tasks.hotelapp.exception.HotelNotFoundException;
+import com.tasks.hotelapp.event.AmenitiesAddedEvent;
+import com.tasks.hotelapp.event.HotelCreatedEvent;
 import com.tasks.hotelapp.exception.NotValidDataException;
+import com.tasks.hotelapp.index.AmenityIndex;
+import com.tasks.hotelapp.index.ColumnarCatalog;
+import com.tasks.hotelapp.index.FullTextIndex;
+import com.tasks.hotelapp.index.GeoIndex;
+import com.tasks.hotelapp.index.HotelHistogramIndex;
+import com.tasks.hotelapp.index.NameTrigramIndex;
 import com.tasks.hotelapp.model.*;
+import com.tasks.hotelapp.model.dto.AmenityBatchDto;
+import com.tasks.hotelapp.model.dto.AmenityBatchResultDto;
+import com.tasks.hotelapp.model.dto.FacetedSearchDto;
 import com.tasks.hotelapp.model.dto.HotelCreateDto;
+import com.tasks.hotelapp.model.dto.HotelCursorDto;
+import com.tasks.hotelapp.model.dto.HotelDistanceDto;
+import com.tasks.hotelapp.model.dto.HotelDetailsDto;
 import com.tasks.hotelapp.model.dto.HotelDto;
+import com.tasks.hotelapp.model.dto.HotelImportResultDto;
+import com.tasks.hotelapp.model.dto.HotelSearchDto;
+import com.tasks.hotelapp.model.dto.HotelSliceDto;
+import com.tasks.hotelapp.model.dto.HotelTextMatchDto;
 import com.tasks.hotelapp.model.entity.Hotel;
+import com.tasks.hotelapp.model.projection.HotelAmenity;
+import com.tasks.hotelapp.model.projection.HotelFacetRow;
+import com.tasks.hotelapp.model.projection.HotelNameAddress;
 import com.tasks.hotelapp.service.HotelService;
 import com.tasks.hotelapp.specification.HotelSpecification;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +59,30 @@ public class HotelServiceTest {
     @Mock
     private HotelsRepository hotelsRepository;
 
+    @Mock
+    private HotelHistogramIndex histogramIndex;
+
+    @Mock
+    private AmenityIndex amenityIndex;
+
+    @Mock
+    private NameTrigramIndex nameTrigramIndex;
+
+    @Mock
+    private GeoIndex geoIndex;
+
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private ColumnarCatalog columnarCatalog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private HotelService hotelService;
 
@@ -58,7 +110,7 @@ public class HotelServiceTest {
                 .address(new Address(1, "Sunset Blvd", "Los Angeles", "USA", "90001"))
                 .contacts(new Contacts("123-456-7890", "info@hotelcalifornia.com"))
                 .arrivalTime(new ArrivalTime("14:00", "12:00"))
-                .amenities(new ArrayList<>())
+                .amenities(new LinkedHashSet<>())
                 .build();
 
         hotelDto = new HotelDto(
@@ -72,7 +124,7 @@ public class HotelServiceTest {
     @Test
     void getAllHotels_ShouldReturnListOfHotelDtos() {
         // Arrange
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity));
+        when(hotelsRepository.findAllHotelDtos()).thenReturn(List.of(hotelDto));
 
         // Act
         List<HotelDto> result = hotelService.getAllHotels();
@@ -81,53 +133,162 @@ public class HotelServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(hotelDto, result.get(0));
-        verify(hotelsRepository, times(1)).findAll();
+        verify(hotelsRepository, times(1)).findAllHotelDtos();
     }
     @Test
     void getHotelById_ShouldReturnHotel_WhenHotelExists() {
         // Arrange
-        when(hotelsRepository.findById(1L)).thenReturn(Optional.of(hotelEntity));
+        when(hotelsRepository.findWithAmenitiesById(1L)).thenReturn(Optional.of(hotelEntity));
 
         // Act
-        Hotel result = hotelService.getHotelById(1L);
+        HotelDetailsDto result = hotelService.getHotelById(1L);
 
         // Assert
         assertNotNull(result);
-        assertEquals(hotelEntity, result);
-        verify(hotelsRepository, times(1)).findById(1L);
+        assertEquals(HotelDetailsDto.of(hotelEntity), result);
+        assertEquals("Sunset Blvd", result.address().street());
+        verify(hotelsRepository, times(1)).findWithAmenitiesById(1L);
     }
     @Test
     void getHotelById_ShouldThrowHotelNotFoundException_WhenHotelDoesNotExist() {
         // Arrange
-        when(hotelsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(hotelsRepository.findWithAmenitiesById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(HotelNotFoundException.class, () -> hotelService.getHotelById(1L));
-        verify(hotelsRepository, times(1)).findById(1L);
+        verify(hotelsRepository, times(1)).findWithAmenitiesById(1L);
     }
     @Test
     void getFilteredHotels_ShouldReturnFilteredList() {
         // Arrange
-        Specification<Hotel> expectedSpec = Specification
-                .where(HotelSpecification.byName("Hotel California"))
-                .and(HotelSpecification.byBrand("BrandX"))
-                .and(HotelSpecification.byCity("Los Angeles"))
-                .and(HotelSpecification.byCountry("USA"))
-                .and(HotelSpecification.byAmenities(List.of("WiFi")));
-
         // Используем any(Specification.class), чтобы указать тип аргумента
-        when(hotelsRepository.findAll(any(Specification.class))).thenReturn(List.of(hotelEntity));
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of(hotelDto));
 
         // Act
-        List<HotelDto> result = hotelService.getFilteredHotels(
-                "Hotel California", "BrandX", "USA", "Los Angeles", List.of("WiFi")
-        );
+        List<HotelDto> result = hotelService.getFilteredHotels(new HotelSearchDto(
+                "Hotel California", "BrandX", "Los Angeles", "USA", List.of("WiFi"), AmenityMatch.ANY
+        ));
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(hotelDto, result.get(0));
-        verify(hotelsRepository, times(1)).findAll(any(Specification.class));
+        verify(hotelsRepository, times(1)).findHotelDtos(any(Specification.class), any(Sort.class), eq(0L), eq(0));
+    }
+    @Test
+    void getFilteredHotels_ShouldResolveAmenitiesThroughIndex() {
+        // Arrange
+        BitSet matchingIds = new BitSet();
+        matchingIds.set(1);
+        when(amenityIndex.match(List.of("WiFi", "Pool"), AmenityMatch.ALL)).thenReturn(matchingIds);
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of(hotelDto));
+        HotelSearchDto search = new HotelSearchDto();
+        search.setAmenities(List.of("WiFi", "Pool"));
+        search.setAmenityMatch(AmenityMatch.ALL);
+
+        // Act
+        List<HotelDto> result = hotelService.getFilteredHotels(search);
+
+        // Assert
+        assertEquals(List.of(hotelDto), result);
+        verify(amenityIndex, times(1)).match(List.of("WiFi", "Pool"), AmenityMatch.ALL);
+    }
+    @Test
+    void getFilteredHotels_ShouldResolveNameThroughTrigramIndex() {
+        // Arrange
+        BitSet matchingIds = new BitSet();
+        matchingIds.set(1);
+        when(nameTrigramIndex.search("california")).thenReturn(matchingIds);
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of(hotelDto));
+        HotelSearchDto search = new HotelSearchDto();
+        search.setName("california");
+
+        // Act
+        List<HotelDto> result = hotelService.getFilteredHotels(search);
+
+        // Assert
+        assertEquals(List.of(hotelDto), result);
+        verify(nameTrigramIndex, times(1)).search("california");
+    }
+    @Test
+    void getFilteredHotels_ShouldReadColumnarCatalog_WhenMemoryEngineIsSelected() {
+        // Arrange
+        HotelSearchDto search = new HotelSearchDto();
+        search.setName("california");
+        when(columnarCatalog.isEnabled()).thenReturn(true);
+        when(columnarCatalog.find(search)).thenReturn(List.of(hotelDto));
+        when(columnarCatalog.histogram(HistogramParam.CITY)).thenReturn(Map.of("Los Angeles", 1));
+
+        // Act & Assert
+        assertEquals(List.of(hotelDto), hotelService.getFilteredHotels(search));
+        assertEquals(Map.of("Los Angeles", 1), hotelService.getHistogram("city"));
+        verifyNoInteractions(hotelsRepository, nameTrigramIndex, histogramIndex);
+    }
+    @Test
+    void getHotelsAfter_ShouldReturnNextCursor_WhenMoreHotelsExist() {
+        // Arrange
+        HotelDto secondHotel = new HotelDto(2L, "Hotel Two", null, hotelDto.getAddress(), hotelDto.getPhone());
+        when(hotelsRepository.findHotelDtos(any(Specification.class), eq(Sort.by("id")), eq(0L), eq(2)))
+                .thenReturn(List.of(hotelDto, secondHotel));
+
+        // Act
+        HotelCursorDto result = hotelService.getHotelsAfter(null, 1);
+
+        // Assert
+        assertEquals(List.of(hotelDto), result.getHotels());
+        assertEquals(1L, result.getNextAfterId());
+    }
+    @Test
+    void getHotelsAfter_ShouldReturnNullCursor_OnLastPage() {
+        // Arrange
+        when(hotelsRepository.findHotelDtos(any(Specification.class), eq(Sort.by("id")), eq(0L), eq(21)))
+                .thenReturn(List.of(hotelDto));
+
+        // Act
+        HotelCursorDto result = hotelService.getHotelsAfter(0L, 20);
+
+        // Assert
+        assertEquals(1, result.getHotels().size());
+        assertNull(result.getNextAfterId());
+    }
+    @Test
+    void getHotelsPage_ShouldReportNextPage_WhenExtraRowIsReturned() {
+        // Arrange
+        Pageable pageable = PageRequest.of(2, 1, Sort.by("name"));
+        HotelDto secondHotel = new HotelDto(2L, "Hotel Two", null, hotelDto.getAddress(), hotelDto.getPhone());
+        when(hotelsRepository.findHotelDtos(any(Specification.class), eq(Sort.by("name")), eq(2L), eq(2)))
+                .thenReturn(List.of(hotelDto, secondHotel));
+
+        // Act
+        HotelSliceDto result = hotelService.getHotelsPage(pageable);
+
+        // Assert
+        assertEquals(List.of(hotelDto), result.getHotels());
+        assertEquals(2, result.getPage());
+        assertTrue(result.isHasNext());
+    }
+    @Test
+    void getFilteredHotelsAfter_ShouldThrowNotValidDataException_WhenLimitIsTooLarge() {
+        // Act & Assert
+        assertThrows(NotValidDataException.class, () -> hotelService.getFilteredHotelsAfter(
+                new HotelSearchDto(), null, HotelService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(hotelsRepository);
+    }
+    @Test
+    void exportHotels_ShouldConvertAndDetachEveryHotel() {
+        // Arrange
+        when(hotelsRepository.streamAllBy()).thenReturn(Stream.of(hotelEntity));
+        List<HotelDto> exported = new ArrayList<>();
+
+        // Act
+        hotelService.exportHotels(exported::add);
+
+        // Assert
+        assertEquals(List.of(hotelDto), exported);
+        verify(entityManager, times(1)).detach(hotelEntity);
     }
     @Test
     void createHotel_ShouldReturnHotelDto_WhenDataIsValid() {
@@ -152,6 +313,7 @@ public class HotelServiceTest {
         assertEquals("1 Sunset Blvd, Los Angeles, 90001, USA", result.getAddress());
         assertEquals("123-456-7890", result.getPhone());
         verify(hotelsRepository, times(1)).save(any(Hotel.class));
+        verify(eventPublisher, times(1)).publishEvent(any(HotelCreatedEvent.class));
     }
     @Test
     void createHotel_ShouldThrowHotelAlreadyExistsException_WhenHotelExists() {
@@ -163,9 +325,50 @@ public class HotelServiceTest {
         verify(hotelsRepository, never()).save(any());
     }
     @Test
+    void importHotels_ShouldReportCreatedDuplicateAndInvalidRecords() {
+        // Arrange
+        HotelCreateDto existing = new HotelCreateDto("Existing", "Old place", "BrandX",
+                new Address(2, "Main St", "Boston", "USA", "02101"),
+                new Contacts("555-0000", "old@example.com"), new ArrivalTime("14:00", "12:00"));
+        HotelCreateDto invalid = new HotelCreateDto("", null, "BrandX", null, null, null);
+        HotelNameAddress stored = mock(HotelNameAddress.class);
+        when(stored.getName()).thenReturn("Existing");
+        when(stored.getAddress()).thenReturn(new Address(2, "Main St", "Boston", "USA", "02101"));
+        when(hotelsRepository.findNameAddressesByNameIn(Set.of("Hotel California", "Existing"))).thenReturn(List.of(stored));
+        when(hotelsRepository.save(any(Hotel.class))).thenAnswer(invocation -> {
+            Hotel savedHotel = invocation.getArgument(0);
+            savedHotel.setId(7L);
+            return savedHotel;
+        });
+
+        // Act
+        List<HotelImportResultDto> results = hotelService.importHotels(
+                List.of(validHotelCreateDto, existing, invalid, validHotelCreateDto), 10);
+
+        // Assert
+        assertEquals(List.of(10, 11, 12, 13), results.stream().map(HotelImportResultDto::getIndex).toList());
+        assertEquals(List.of(ImportStatus.CREATED, ImportStatus.DUPLICATE, ImportStatus.INVALID, ImportStatus.DUPLICATE),
+                results.stream().map(HotelImportResultDto::getStatus).toList());
+        assertEquals(7L, results.get(0).getId());
+        verify(hotelsRepository, times(1)).findNameAddressesByNameIn(any());
+        verify(hotelsRepository, times(1)).save(any(Hotel.class));
+        verify(eventPublisher, times(1)).publishEvent(any(HotelCreatedEvent.class));
+    }
+    @Test
+    void importHotels_ShouldSkipLookup_WhenNoRecordIsValid() {
+        // Act
+        List<HotelImportResultDto> results = hotelService.importHotels(
+                List.of(new HotelCreateDto(null, null, null, null, null, null)), 0);
+
+        // Assert
+        assertEquals(ImportStatus.INVALID, results.get(0).getStatus());
+        verify(hotelsRepository, never()).findNameAddressesByNameIn(any());
+        verify(hotelsRepository, never()).save(any());
+    }
+    @Test
     void addAmenities_ShouldAddAmenities_WhenAmenitiesAreNotPresent() {
         // Arrange
-        when(hotelsRepository.findById(1L)).thenReturn(Optional.of(hotelEntity));
+        when(hotelsRepository.findWithAmenitiesById(1L)).thenReturn(Optional.of(hotelEntity));
         when(hotelsRepository.save(any())).thenReturn(hotelEntity);
 
         // Act
@@ -174,21 +377,75 @@ public class HotelServiceTest {
         // Assert
         assertTrue(hotelEntity.getAmenities().containsAll(List.of("WiFi", "Pool")));
         verify(hotelsRepository, times(1)).save(hotelEntity);
+        verify(eventPublisher, times(1)).publishEvent(any(AmenitiesAddedEvent.class));
     }
     @Test
     void addAmenities_ShouldThrowResponseStatusException_WhenAmenitiesAlreadyExist() {
         // Arrange
-        hotelEntity.setAmenities(List.of("WiFi"));
-        when(hotelsRepository.findById(1L)).thenReturn(Optional.of(hotelEntity));
+        hotelEntity.setAmenities(new LinkedHashSet<>(List.of("WiFi")));
+        when(hotelsRepository.findWithAmenitiesById(1L)).thenReturn(Optional.of(hotelEntity));
 
         // Act & Assert
         assertThrows(ResponseStatusException.class, () -> hotelService.addAmenities(1L, List.of("WiFi")));
         verify(hotelsRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+    @Test
+    void addAmenitiesToHotels_ShouldInsertMissingRowsAndPublishOnlyNewAmenities() {
+        // Arrange
+        HotelAmenity existing = mock(HotelAmenity.class);
+        when(existing.getHotelId()).thenReturn(1L);
+        when(existing.getAmenity()).thenReturn("WiFi");
+        when(hotelsRepository.findHotelIds(any())).thenReturn(List.of(1L, 2L));
+        when(hotelsRepository.findHotelAmenitiesIn(List.of(1L, 2L), Set.of("WiFi", "Pool"))).thenReturn(List.of(existing));
+        when(hotelsRepository.insertMissingAmenity(List.of(1L, 2L), "WiFi")).thenReturn(1);
+        when(hotelsRepository.insertMissingAmenity(List.of(1L, 2L), "Pool")).thenReturn(2);
+
+        // Act
+        AmenityBatchResultDto result = hotelService.addAmenitiesToHotels(
+                new AmenityBatchDto(List.of(1L, 2L), null, List.of("WiFi", "Pool", "WiFi")));
+
+        // Assert
+        assertEquals(new AmenityBatchResultDto(2, 2, 3), result);
+        verify(hotelsRepository).incrementVersions(Set.of(1L, 2L));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AmenitiesAddedEvent added
+                && added.getHotelId() == 1L && added.getAmenities().equals(List.of("Pool"))));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AmenitiesAddedEvent added
+                && added.getHotelId() == 2L && added.getAmenities().equals(List.of("WiFi", "Pool"))));
+    }
+    @Test
+    void addAmenitiesToHotels_ShouldThrowNotValidDataException_WhenTargetIsMissing() {
+        // Act & Assert
+        assertThrows(NotValidDataException.class,
+                () -> hotelService.addAmenitiesToHotels(new AmenityBatchDto(null, null, List.of("WiFi"))));
+        assertThrows(NotValidDataException.class,
+                () -> hotelService.addAmenitiesToHotels(new AmenityBatchDto(List.of(1L), new HotelSearchDto(), List.of("WiFi"))));
+        verifyNoInteractions(hotelsRepository);
+    }
+    @Test
+    void addAmenitiesToHotels_ShouldThrowNotValidDataException_WhenFilterIsEmpty() {
+        // Act & Assert
+        assertThrows(NotValidDataException.class,
+                () -> hotelService.addAmenitiesToHotels(new AmenityBatchDto(null, new HotelSearchDto(), List.of("WiFi"))));
+        verifyNoInteractions(hotelsRepository);
+    }
+    @Test
+    void addAmenitiesToHotels_ShouldResolveRequestedIdsInChunks() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(hotelsRepository.findHotelIds(any())).thenReturn(List.of());
+
+        // Act
+        AmenityBatchResultDto result = hotelService.addAmenitiesToHotels(new AmenityBatchDto(ids, null, List.of("WiFi")));
+
+        // Assert
+        assertEquals(new AmenityBatchResultDto(0, 0, 0), result);
+        verify(hotelsRepository, times(3)).findHotelIds(any());
     }
     @Test
     void getHistogram_ShouldReturnHistogram_WhenParamIsValid() {
         // Arrange
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity));
+        when(histogramIndex.snapshot(HistogramParam.BRAND)).thenReturn(Map.of("BrandX", 1));
 
         // Act
         Map<String, Integer> result = hotelService.getHistogram("brand");
@@ -196,21 +453,21 @@ public class HotelServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.get("BrandX"));
-        verify(hotelsRepository, times(1)).findAll();
+        verify(histogramIndex, times(1)).snapshot(HistogramParam.BRAND);
     }
     @Test
     void getHistogram_ShouldThrowNotValidDataException_WhenParamIsInvalid() {
         // Arrange
         String invalidParam = "invalidParam";
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity)); // Мокируем данные
 
         // Act & Assert
         assertThrows(NotValidDataException.class, () -> hotelService.getHistogram(invalidParam));
+        verifyNoInteractions(histogramIndex);
     }
     @Test
     void getHistogram_ShouldReturnHistogramByBrand() {
         // Arrange
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity));
+        when(histogramIndex.snapshot(HistogramParam.BRAND)).thenReturn(Map.of("BrandX", 1));
 
         // Act
         Map<String, Integer> result = hotelService.getHistogram("brand");
@@ -218,13 +475,14 @@ public class HotelServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.get("BrandX")); // Проверяем, что бренд "BrandX" встречается 1 раз
-        verify(hotelsRepository, times(1)).findAll();
+        verify(histogramIndex, times(1)).snapshot(HistogramParam.BRAND);
+        verifyNoInteractions(hotelsRepository);
     }
 
     @Test
     void getHistogram_ShouldReturnHistogramByCity() {
         // Arrange
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity));
+        when(histogramIndex.snapshot(HistogramParam.CITY)).thenReturn(Map.of("Los Angeles", 1));
 
         // Act
         Map<String, Integer> result = hotelService.getHistogram("city");
@@ -232,13 +490,13 @@ public class HotelServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.get("Los Angeles")); // Проверяем, что город "Los Angeles" встречается 1 раз
-        verify(hotelsRepository, times(1)).findAll();
+        verify(histogramIndex, times(1)).snapshot(HistogramParam.CITY);
     }
 
     @Test
     void getHistogram_ShouldReturnHistogramByCountry() {
         // Arrange
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity));
+        when(histogramIndex.snapshot(HistogramParam.COUNTRY)).thenReturn(Map.of("USA", 1));
 
         // Act
         Map<String, Integer> result = hotelService.getHistogram("country");
@@ -246,14 +504,13 @@ public class HotelServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.get("USA")); // Проверяем, что страна "USA" встречается 1 раз
-        verify(hotelsRepository, times(1)).findAll();
+        verify(histogramIndex, times(1)).snapshot(HistogramParam.COUNTRY);
     }
 
     @Test
     void getHistogram_ShouldReturnHistogramByAmenities() {
         // Arrange
-        hotelEntity.setAmenities(List.of("WiFi", "Pool")); // Устанавливаем удобства
-        when(hotelsRepository.findAll()).thenReturn(List.of(hotelEntity));
+        when(histogramIndex.snapshot(HistogramParam.AMENITIES)).thenReturn(Map.of("WiFi", 1, "Pool", 1));
 
         // Act
         Map<String, Integer> result = hotelService.getHistogram("amenities");
@@ -262,7 +519,7 @@ public class HotelServiceTest {
         assertNotNull(result);
         assertEquals(1, result.get("WiFi")); // Проверяем, что "WiFi" встречается 1 раз
         assertEquals(1, result.get("Pool")); // Проверяем, что "Pool" встречается 1 раз
-        verify(hotelsRepository, times(1)).findAll();
+        verify(histogramIndex, times(1)).snapshot(HistogramParam.AMENITIES);
     }
     @Test
     void createHotel_ShouldThrowNotValidDataException_WhenContactsAreInvalid() {
@@ -282,4 +539,118 @@ public class HotelServiceTest {
         assertThrows(NotValidDataException.class, () -> hotelService.createHotel(invalidHotelCreateDto));
         verify(hotelsRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getNearbyHotels_ShouldReturnHotelsInIndexOrderWithDistances() {
+        HotelDto farther = new HotelDto(2L, "Hotel Farther", "", "2 Main St, Boston, 02101, USA", "555");
+        when(geoIndex.nearest(42.36, -71.06, 10.0, 5)).thenReturn(List.of(
+                new GeoIndex.Neighbor(1L, 0.5), new GeoIndex.Neighbor(2L, 3.25)));
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), eq(0L), eq(0)))
+                .thenReturn(List.of(farther, hotelDto));
+
+        List<HotelDistanceDto> result = hotelService.getNearbyHotels(42.36, -71.06, 10.0, 5);
+
+        assertEquals(List.of(new HotelDistanceDto(hotelDto, 0.5), new HotelDistanceDto(farther, 3.25)), result);
+    }
+
+    @Test
+    void getNearbyHotels_ShouldNotQueryDatabase_WhenNoHotelIsNearby() {
+        when(geoIndex.nearest(0.0, 0.0, null, 20)).thenReturn(List.of());
+
+        assertTrue(hotelService.getNearbyHotels(0.0, 0.0, null, 20).isEmpty());
+        verifyNoInteractions(hotelsRepository);
+    }
+
+    @Test
+    void getNearbyHotels_ShouldThrowNotValidDataException_WhenLocationIsInvalid() {
+        assertThrows(NotValidDataException.class, () -> hotelService.getNearbyHotels(91.0, 0.0, null, 20));
+        assertThrows(NotValidDataException.class, () -> hotelService.getNearbyHotels(0.0, -181.0, null, 20));
+        assertThrows(NotValidDataException.class, () -> hotelService.getNearbyHotels(0.0, 0.0, 0.0, 20));
+        verifyNoInteractions(geoIndex);
+    }
+
+    @Test
+    void searchHotelsByText_ShouldReturnHotelsInRelevanceOrderWithHighlights() {
+        HotelDto other = new HotelDto(2L, "Grand Hotel", "", "2 Main St, Boston, 02101, USA", "555");
+        when(fullTextIndex.search("grand", 5)).thenReturn(List.of(
+                new FullTextIndex.Hit(2L, 3.5f, Map.of(FullTextIndex.NAME, "<em>Grand</em> Hotel")),
+                new FullTextIndex.Hit(1L, 1.25f, Map.of())));
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), eq(0L), eq(0)))
+                .thenReturn(List.of(hotelDto, other));
+
+        List<HotelTextMatchDto> result = hotelService.searchHotelsByText("grand", 5);
+
+        assertEquals(List.of(new HotelTextMatchDto(other, 3.5f, Map.of(FullTextIndex.NAME, "<em>Grand</em> Hotel")),
+                new HotelTextMatchDto(hotelDto, 1.25f, Map.of())), result);
+    }
+
+    @Test
+    void searchHotelsByText_ShouldThrowNotValidDataException_WhenQueryIsBlankOrTooLong() {
+        assertThrows(NotValidDataException.class, () -> hotelService.searchHotelsByText(" ", 20));
+        assertThrows(NotValidDataException.class,
+                () -> hotelService.searchHotelsByText("a".repeat(HotelService.MAX_QUERY_LENGTH + 1), 20));
+        verifyNoInteractions(fullTextIndex);
+    }
+
+    @Test
+    void createHotel_ShouldThrowNotValidDataException_WhenOnlyOneCoordinateIsGiven() {
+        validHotelCreateDto.getAddress().setLatitude(34.05);
+
+        assertThrows(NotValidDataException.class, () -> hotelService.createHotel(validHotelCreateDto));
+        verify(hotelsRepository, never()).save(any());
+    }
+
+    @Test
+    void getFacetedHotels_ShouldCountFacetsOfMatchingHotelsInOnePass() {
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of(hotelDto));
+        when(hotelsRepository.streamFacetRows(any(Specification.class))).thenReturn(Stream.of(
+                new HotelFacetRow(1L, "BrandX", "Los Angeles", "USA"),
+                new HotelFacetRow(2L, "BrandX", "Boston", "USA")));
+        BitSet expectedIds = new BitSet();
+        expectedIds.set(1, 3);
+        when(amenityIndex.count(expectedIds)).thenReturn(Map.of("WiFi", 2));
+
+        FacetedSearchDto result = hotelService.getFacetedHotels(
+                new HotelSearchDto(null, "brandx", null, null, null, AmenityMatch.ANY), PageRequest.of(0, 10));
+
+        assertEquals(List.of(hotelDto), result.getHotels().getHotels());
+        assertEquals(2, result.getTotal());
+        assertEquals(Map.of("BrandX", 2), result.getFacets().get(HistogramParam.BRAND));
+        assertEquals(Map.of("Los Angeles", 1, "Boston", 1), result.getFacets().get(HistogramParam.CITY));
+        assertEquals(Map.of("USA", 2), result.getFacets().get(HistogramParam.COUNTRY));
+        assertEquals(Map.of("WiFi", 2), result.getFacets().get(HistogramParam.AMENITIES));
+        verify(histogramIndex, never()).snapshot(any());
+    }
+
+    @Test
+    void getFacetedHotels_ShouldCountFacetsInColumnarCatalog_WhenMemoryEngineIsSelected() {
+        HotelSearchDto search = new HotelSearchDto(null, "brandx", null, null, null, AmenityMatch.ANY);
+        when(hotelsRepository.findHotelDtos(any(Specification.class), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of(hotelDto));
+        when(columnarCatalog.isEnabled()).thenReturn(true);
+        when(columnarCatalog.facets(search)).thenReturn(new ColumnarCatalog.Facets(2,
+                Map.of(HistogramParam.BRAND, Map.of("BrandX", 2))));
+
+        FacetedSearchDto result = hotelService.getFacetedHotels(search, PageRequest.of(0, 10));
+
+        assertEquals(List.of(hotelDto), result.getHotels().getHotels());
+        assertEquals(2, result.getTotal());
+        assertEquals(Map.of("BrandX", 2), result.getFacets().get(HistogramParam.BRAND));
+        verify(hotelsRepository, never()).streamFacetRows(any());
+        verifyNoInteractions(amenityIndex);
+    }
+
+    @Test
+    void getFacetedHotels_ShouldUseHistograms_WhenThereAreNoFilters() {
+        when(hotelsRepository.findHotelDtos(any(), any(Sort.class), anyLong(), anyInt())).thenReturn(List.of(hotelDto));
+        when(histogramIndex.snapshot(any())).thenReturn(Map.of());
+        when(histogramIndex.snapshot(HistogramParam.BRAND)).thenReturn(Map.of("BrandX", 3, "BrandY", 2));
+
+        FacetedSearchDto result = hotelService.getFacetedHotels(new HotelSearchDto(), PageRequest.of(0, 10));
+
+        assertEquals(5, result.getTotal());
+        assertEquals(Map.of("BrandX", 3, "BrandY", 2), result.getFacets().get(HistogramParam.BRAND));
+        verify(hotelsRepository, never()).streamFacetRows(any());
+    }
+}
@@ -0,0 +1,46 @@
+package com.tasks.hotelapp.slowquery;
+
+import com.tasks.hotelapp.model.dto.SlowQueryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlowQueryLogTest {
+
+    @Test
+    void add_ShouldDropOldestEntry_WhenBufferIsFull() {
+        SlowQueryLog log = new SlowQueryLog(2);
+
+        log.add(entry("first"));
+        log.add(entry("second"));
+        log.add(entry("third"));
+
+        assertEquals(List.of("third", "second"),
+                log.getEntries().stream().map(SlowQueryDto::getRepositoryMethod).toList());
+    }
+
+    @Test
+    void constructor_ShouldThrowIllegalArgumentException_WhenCapacityIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(0));
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(-1));
+    }
+
+    @Test
+    void clear_ShouldRemoveAllEntries() {
+        SlowQueryLog log = new SlowQueryLog(2);
+        log.add(entry("first"));
+
+        log.clear();
+
+        assertTrue(log.getEntries().isEmpty());
+    }
+
+    private static SlowQueryDto entry(String method) {
+        return new SlowQueryDto(Instant.now(), method, 1, 0, List.of());
+    }
+}